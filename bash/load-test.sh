@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+# Compares the default platform-thread pool with the virtual-threads profile.
+# Both runs get the same Hikari settings, so the thread model is the only variable.
+# Needs Java 21, `hey` (https://github.com/rakyll/hey) and a running database.
+#   ./mvnw -Pjava21 clean package -DskipTests && bash/load-test.sh
+
+DURATION=${DURATION:-60s}
+CONCURRENCY=${CONCURRENCY:-400}
+TARGETS=${TARGETS:-"/vouchers /actuator/health"}
+BASE_URL=${BASE_URL:-https://localhost:8443}
+POOL_SIZE=${POOL_SIZE:-10}
+CONNECTION_TIMEOUT=${CONNECTION_TIMEOUT:-5000}
+
+JAR=$(ls target/*.jar 2>/dev/null | grep -v original | head -n 1 || true)
+if [ -z "$JAR" ]; then
+    echo "No jar in target/, build with: ./mvnw -Pjava21 package -DskipTests"
+    exit 1
+fi
+
+command -v hey >/dev/null 2>&1 || { echo "hey is required"; exit 1; }
+
+run() {
+    name=$1
+    profiles=$2
+
+    echo "Starting app ($name)..."
+    java -jar "$JAR" --spring.profiles.active="$profiles" \
+        --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+        --spring.datasource.hikari.minimum-idle="$POOL_SIZE" \
+        --spring.datasource.hikari.connection-timeout="$CONNECTION_TIMEOUT" \
+        > "target/load-test-$name.log" 2>&1 &
+    pid=$!
+
+    until curl -ksf "$BASE_URL/actuator/health" >/dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "App failed to start, see target/load-test-$name.log"; exit 1; }
+        sleep 1
+    done
+
+    for target in $TARGETS; do
+        hey -z 10s -c 50 "$BASE_URL$target" >/dev/null
+        report="target/load-test-$name$(echo "$target" | tr '/' '-').txt"
+        hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL$target" > "$report"
+
+        rps=$(grep "Requests/sec" "$report" | awk '{print $2}')
+        p99=$(grep "99% in" "$report" | awk '{print $3}')
+        printf "%-10s %-20s rps=%-12s p99=%ss\n" "$name" "$target" "$rps" "$p99"
+    done
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+run platform default
+run virtual virtual-threads
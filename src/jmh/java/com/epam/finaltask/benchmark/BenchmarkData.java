@@ -0,0 +1,60 @@
+package com.epam.finaltask.benchmark;
+
+import com.epam.finaltask.dto.VoucherView;
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkData {
+
+    private static final TourType[] TOURS = TourType.values();
+    private static final TransferType[] TRANSFERS = TransferType.values();
+    private static final HotelType[] HOTELS = HotelType.values();
+    private static final VoucherStatus[] STATUSES = VoucherStatus.values();
+
+    private BenchmarkData() {
+    }
+
+    static List<Voucher> vouchers(int count) {
+        User owner = User.builder().id(UUID.randomUUID()).username("traveler_bob").build();
+        List<Voucher> vouchers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vouchers.add(Voucher.builder()
+                    .id(UUID.randomUUID())
+                    .title("Trip #" + i)
+                    .description("Enjoy our exclusive package #" + i)
+                    .price(BigDecimal.valueOf(100 + i % 7000, 0))
+                    .tourType(TOURS[i % TOURS.length])
+                    .transferType(TRANSFERS[i % TRANSFERS.length])
+                    .hotelType(HOTELS[i % HOTELS.length])
+                    .status(STATUSES[i % STATUSES.length])
+                    .arrivalDate(LocalDate.of(2026, 1, 1).plusDays(i % 350))
+                    .evictionDate(LocalDate.of(2026, 1, 8).plusDays(i % 350))
+                    .user(i % 5 == 0 ? null : owner)
+                    .isHot(i % 4 == 0)
+                    .createdAt(LocalDateTime.now().minusMinutes(i))
+                    .updatedAt(LocalDateTime.now().minusSeconds(i))
+                    .build());
+        }
+        return vouchers;
+    }
+
+    static List<VoucherView> views(int count) {
+        return vouchers(count).stream()
+                .map(voucher -> new VoucherView(voucher.getId(), voucher.getTitle(), voucher.getDescription(),
+                        voucher.getPrice(), voucher.getTourType(), voucher.getTransferType(), voucher.getHotelType(),
+                        voucher.getStatus(), voucher.getArrivalDate(), voucher.getEvictionDate(),
+                        voucher.getUser() == null ? null : voucher.getUser().getId(), voucher.getIsHot()))
+                .toList();
+    }
+}
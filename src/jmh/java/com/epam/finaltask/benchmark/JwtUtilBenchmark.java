@@ -0,0 +1,71 @@
+package com.epam.finaltask.benchmark;
+
+import com.epam.finaltask.model.Role;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.util.JwtProperties;
+import com.epam.finaltask.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey("404E635263336A586E3272357538782F413F4428472B4B6250645367566B5970");
+        jwtProperties.setExpiration(86_400_000);
+        jwtProperties.getRefreshToken().setExpiration(172_800_000);
+
+        jwtUtil = new JwtUtil(jwtProperties);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("traveler_bob")
+                .role(Role.USER)
+                .build();
+        token = jwtUtil.generateAccessToken(user);
+        claims = jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public boolean isTokenValidFromClaims() {
+        return jwtUtil.isTokenValid(claims, user);
+    }
+}
@@ -0,0 +1,68 @@
+package com.epam.finaltask.benchmark;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import com.epam.finaltask.mapper.PaginationMapper;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationMapperBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private final VoucherFilerRequest filter = new VoucherFilerRequest();
+
+    private Page<VoucherDTO> page;
+    private Slice<VoucherDTO> slice;
+
+    @Setup
+    public void setUp() {
+        VoucherMapperImpl voucherMapper = new VoucherMapperImpl();
+        List<VoucherDTO> content = BenchmarkData.views(pageSize).stream().map(voucherMapper::toVoucherDTO).toList();
+        PageRequest pageable = PageRequest.of(3, pageSize);
+
+        page = new PageImpl<>(content, pageable, 20_000);
+        slice = new SliceImpl<>(content, pageable, true);
+    }
+
+    @Benchmark
+    public VoucherPaginatedResponse fromPage() {
+        return PaginationMapper.toVoucherResponse(page, filter);
+    }
+
+    @Benchmark
+    public VoucherPaginatedResponse fromSliceWithCount() {
+        return PaginationMapper.toVoucherResponse(slice, filter, 20_000L);
+    }
+
+    @Benchmark
+    public VoucherPaginatedResponse fromSliceWithEstimate() {
+        return PaginationMapper.toVoucherResponse(slice, filter, null);
+    }
+}
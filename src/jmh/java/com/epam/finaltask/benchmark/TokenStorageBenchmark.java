@@ -0,0 +1,127 @@
+package com.epam.finaltask.benchmark;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import com.epam.finaltask.mapper.PaginationMapper;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.model.CacheType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherPageDependency;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.service.impl.VoucherPageStorage;
+import com.epam.finaltask.util.VoucherCacheKeyUtil;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenStorageBenchmark {
+
+    private static final int CACHED_PAGES = 1000;
+    private static final TourType[] TOURS = TourType.values();
+
+    private VoucherPageStorage storage;
+    private VoucherPaginatedResponse response;
+    private VoucherFilerRequest filter;
+    private VoucherChange orderChange;
+    private Map<String, VoucherPaginatedResponse> affectedPages;
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CacheType.CacheNames.VOUCHER_PAGES,
+                Caffeine.newBuilder().maximumSize(CacheType.VOUCHER_PAGES.getMaxSize()).build())));
+        cacheManager.afterPropertiesSet();
+        storage = new VoucherPageStorage(cacheManager);
+
+        Voucher voucher = Voucher.builder().id(UUID.randomUUID()).status(VoucherStatus.CREATED).tourType(TourType.ECO).build();
+        orderChange = VoucherChange.of(voucher);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        orderChange.include(voucher);
+
+        VoucherMapperImpl voucherMapper = new VoucherMapperImpl();
+        List<VoucherDTO> content = BenchmarkData.views(10).stream().map(voucherMapper::toVoucherDTO).toList();
+
+        affectedPages = new HashMap<>();
+        for (int i = 0; i < CACHED_PAGES; i++) {
+            VoucherFilerRequest pageFilter = new VoucherFilerRequest();
+            pageFilter.setTours(List.of(TOURS[i % TOURS.length]));
+            PageRequest pageable = PageRequest.of(i / TOURS.length, 10);
+            String key = VoucherCacheKeyUtil.pageKey(pageFilter, pageable);
+            VoucherPaginatedResponse page =
+                    PaginationMapper.toVoucherResponse(new SliceImpl<>(content, pageable, true), pageFilter, 20_000L);
+            storage.store(key, page);
+            if (VoucherPageDependency.of(page).isAffectedBy(orderChange)) {
+                affectedPages.put(key, page);
+            }
+        }
+
+        filter = new VoucherFilerRequest();
+        filter.setTours(List.of(TourType.WINE));
+        response = storage.get(VoucherCacheKeyUtil.pageKey(filter, PageRequest.of(0, 10)));
+    }
+
+    @Benchmark
+    public String pageKey() {
+        return VoucherCacheKeyUtil.pageKey(filter, PageRequest.of(counter++ & 7, 10));
+    }
+
+    @Benchmark
+    public VoucherPaginatedResponse getHit() {
+        return storage.get(VoucherCacheKeyUtil.pageKey(filter, PageRequest.of(0, 10)));
+    }
+
+    @Benchmark
+    public VoucherPaginatedResponse getMiss() {
+        return storage.get("missing|" + (counter++ & 1023));
+    }
+
+    @Benchmark
+    public void store() {
+        storage.store("bench|" + (counter++ & 1023), response);
+    }
+
+    @Benchmark
+    public void evictOnOrder(EvictedPages evictedPages) {
+        storage.evict(orderChange);
+    }
+
+    // Each eviction removes the pages it matches, so they are put back before every call; otherwise
+    // every call after the first scans a cache with nothing left to evict.
+    @State(Scope.Thread)
+    public static class EvictedPages {
+
+        @Setup(Level.Invocation)
+        public void restore(TokenStorageBenchmark benchmark) {
+            benchmark.affectedPages.forEach(benchmark.storage::store);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.epam.finaltask.benchmark;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherView;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.model.Voucher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoucherMapperBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private final VoucherMapper voucherMapper = new VoucherMapperImpl();
+
+    private List<Voucher> vouchers;
+    private List<VoucherView> views;
+
+    @Setup
+    public void setUp() {
+        vouchers = BenchmarkData.vouchers(pageSize);
+        views = BenchmarkData.views(pageSize);
+    }
+
+    @Benchmark
+    public List<VoucherDTO> mapEntities() {
+        return vouchers.stream().map(voucherMapper::toVoucherDTO).toList();
+    }
+
+    @Benchmark
+    public List<VoucherDTO> mapViews() {
+        return views.stream().map(voucherMapper::toVoucherDTO).toList();
+    }
+
+    @Benchmark
+    public List<Voucher> mapToEntities() {
+        return mapEntities().stream().map(voucherMapper::toVoucher).toList();
+    }
+}
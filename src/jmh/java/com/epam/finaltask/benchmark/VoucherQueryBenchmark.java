@@ -0,0 +1,157 @@
+package com.epam.finaltask.benchmark;
+
+import com.epam.finaltask.dto.AdminVoucherFilterRequest;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.dto.VoucherView;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.repository.VoucherRepositoryCustomImpl;
+import com.epam.finaltask.repository.specification.VoucherCursor;
+import com.epam.finaltask.repository.specification.VoucherSpecifications;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoucherQueryBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"20000"})
+    private int rows;
+
+    @Param({"0", "500"})
+    private int page;
+
+    private EmbeddedPostgres postgres;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManager entityManager;
+    private VoucherRepositoryCustomImpl repository;
+
+    private final VoucherFilerRequest publicFilter = new VoucherFilerRequest();
+    private final AdminVoucherFilterRequest adminFilter = new AdminVoucherFilterRequest();
+    private VoucherCursor cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO vouchers (title, description, price, voucher_tour_type, voucher_transfer_type,
+                                          voucher_hotel_type, voucher_status_type, arrival_date, eviction_date, is_hot,
+                                          created_at, updated_at)
+                    SELECT 'Trip #' || i,
+                           'Enjoy our exclusive package #' || i,
+                           (i %% 7000 + 100)::NUMERIC(10, 2),
+                           (ARRAY['HEALTH', 'SPORTS', 'LEISURE', 'SAFARI', 'WINE', 'ECO', 'ADVENTURE', 'CULTURAL'])[i %% 8 + 1]::tour_type,
+                           (ARRAY['BUS', 'TRAIN', 'PLANE', 'SHIP'])[i %% 4 + 1]::transfer_type,
+                           (ARRAY['ONE_STARS', 'TWO_STARS', 'THREE_STARS', 'FOUR_STARS', 'FIVE_STARS'])[i %% 5 + 1]::hotel_type,
+                           (CASE WHEN i %% 5 = 0 THEN 'PAID' ELSE 'CREATED' END)::status_type,
+                           DATE '2026-01-01' + i %% 350,
+                           DATE '2026-01-08' + i %% 350,
+                           i %% 4 = 0,
+                           NOW() - (i || ' minutes')::INTERVAL,
+                           NOW() - (i || ' seconds')::INTERVAL
+                    FROM generate_series(1, %d) AS i
+                    """.formatted(rows));
+            statement.execute("ANALYZE vouchers");
+        }
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(postgres.getPostgresDatabase());
+        factoryBean.setPackagesToScan("com.epam.finaltask.model");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+
+        entityManager = factoryBean.getObject().createEntityManager();
+        repository = new VoucherRepositoryCustomImpl(entityManager);
+
+        adminFilter.setTitle("trip #12");
+
+        List<Voucher> skipped = repository.findWithLimit(
+                VoucherSpecifications.withCursor(publicFilter, null), Math.max(page * PAGE_SIZE, 1));
+        cursor = page == 0 ? null : VoucherCursor.of(publicFilter, skipped.get(skipped.size() - 1));
+        entityManager.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        entityManager.close();
+        factoryBean.destroy();
+        postgres.close();
+    }
+
+    @Benchmark
+    public Predicate buildPublicCriteria() {
+        return buildCriteria(publicFilter);
+    }
+
+    @Benchmark
+    public Predicate buildAdminCriteria() {
+        return buildCriteria(adminFilter);
+    }
+
+    @Benchmark
+    public Slice<VoucherView> offsetPage() {
+        return repository.findViewSlice(VoucherSpecifications.withFilters(publicFilter), PageRequest.of(page, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Voucher> cursorPage() {
+        List<Voucher> vouchers = repository.findWithLimit(VoucherSpecifications.withCursor(publicFilter, cursor), PAGE_SIZE + 1);
+        entityManager.clear();
+        return vouchers;
+    }
+
+    @Benchmark
+    public Slice<VoucherView> adminTitleSearch() {
+        return repository.findViewSlice(VoucherSpecifications.withFilters(adminFilter), PageRequest.of(0, PAGE_SIZE));
+    }
+
+    private Predicate buildCriteria(VoucherFilerRequest filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Voucher> query = cb.createQuery(Voucher.class);
+        Root<Voucher> root = query.from(Voucher.class);
+        return VoucherSpecifications.withFilters(filter).toPredicate(root, query, cb);
+    }
+}
@@ -1,5 +1,8 @@
 package com.epam.finaltask.AOP.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -7,15 +10,38 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 @Aspect
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class MethodLoggingAspect {
 
+    static final String LATENCY_METRIC = "app.method.latency";
+
+    private static final int MAX_TEXT_LENGTH = 64;
+    private static final String REDACTED = "***";
+    private static final Duration MAX_EXPECTED_LATENCY = Duration.ofSeconds(10);
+
+    private final MeterRegistry meterRegistry;
+    private final TracingProperties tracingProperties;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
     @Pointcut("@within(org.springframework.web.bind.annotation.RestController)")
     public void restControllerMethods() {
     }
@@ -38,26 +64,34 @@ public class MethodLoggingAspect {
 
     @Around("applicationPackagePointcut()")
     public Object logExecutionMethod(ProceedingJoinPoint joinPoint) throws Throwable {
-        long start = System.nanoTime();
-
-        log.info("stage=init-{}, method={}, class={}, parameters={}",
-                joinPoint.getSignature().getName(),
-                joinPoint.getSignature().getName(),
-                joinPoint.getSignature().getDeclaringType().getSimpleName(),
-                joinPoint.getArgs());
+        if (!tracingProperties.isEnabled()) {
+            return joinPoint.proceed();
+        }
 
-        Object result = joinPoint.proceed();
-        long timeElapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            Class<?> targetClass = targetClass(joinPoint);
 
-        log.info("stage=finish-{}, method={}, class={}, parameters={}, result={}, time-execution={}ms",
-                joinPoint.getSignature().getName(),
-                joinPoint.getSignature().getName(),
-                joinPoint.getSignature().getDeclaringType().getSimpleName(),
-                joinPoint.getArgs(),
-                result,
-                timeElapsed);
+            timers.computeIfAbsent(new TimerKey(targetClass, signature.getMethod()), this::buildTimer)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
 
-        return result;
+            if (elapsed >= tracingProperties.getSlowThreshold().toNanos()) {
+                log.warn("stage=slow, method={}, class={}, time-execution={}ms",
+                        signature.getName(),
+                        targetClass.getSimpleName(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed));
+            } else if (log.isDebugEnabled() && isSampled()) {
+                log.debug("stage=finish, method={}, class={}, parameters={}, time-execution={}us",
+                        signature.getName(),
+                        targetClass.getSimpleName(),
+                        describeArgs(signature.getParameterNames(), joinPoint.getArgs()),
+                        TimeUnit.NANOSECONDS.toMicros(elapsed));
+            }
+        }
     }
 
     @AfterThrowing(pointcut = "applicationPackagePointcut()", throwing = "e")
@@ -68,4 +102,72 @@ public class MethodLoggingAspect {
         log.error("Exception in {}.{}() with cause = {}",
                 className, methodName, e.getCause() != null ? e.getCause() : "NULL", e);
     }
+
+    // inherited methods (e.g. AbstractTokenStorage) are tagged with the bean's own class, so each storage gets its own series
+    private Class<?> targetClass(JoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+        return target != null ? ClassUtils.getUserClass(target) : joinPoint.getSignature().getDeclaringType();
+    }
+
+    private Timer buildTimer(TimerKey key) {
+        return Timer.builder(LATENCY_METRIC)
+                .tag("class", key.targetClass().getSimpleName())
+                .tag("method", key.method().getName())
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(meterRegistry);
+    }
+
+    private boolean isSampled() {
+        double rate = tracingProperties.getSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    String describeArgs(String[] names, Object[] args) {
+        StringBuilder description = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            String name = names != null && i < names.length ? names[i] : "arg" + i;
+            description.append(name).append('=')
+                    .append(isRedacted(name) ? REDACTED : describe(args[i]));
+        }
+        return description.append(']').toString();
+    }
+
+    private boolean isRedacted(String name) {
+        String lowerCaseName = name.toLowerCase(Locale.ROOT);
+        for (String redacted : tracingProperties.getRedactedParameters()) {
+            if (lowerCaseName.contains(redacted.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String describe(Object arg) {
+        if (arg == null) {
+            return "null";
+        }
+        if (arg instanceof CharSequence text) {
+            return text.length() > MAX_TEXT_LENGTH ? text.subSequence(0, MAX_TEXT_LENGTH) + "..." : text.toString();
+        }
+        if (arg instanceof Number || arg instanceof Boolean || arg instanceof UUID || arg instanceof Enum<?>) {
+            return arg.toString();
+        }
+        if (arg instanceof Collection<?> collection) {
+            return arg.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (arg instanceof Map<?, ?> map) {
+            return arg.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (arg.getClass().isArray()) {
+            return arg.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(arg) + "]";
+        }
+        return arg.getClass().getSimpleName();
+    }
+
+    private record TimerKey(Class<?> targetClass, Method method) {
+    }
 }
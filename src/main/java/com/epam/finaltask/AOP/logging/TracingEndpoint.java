@@ -0,0 +1,49 @@
+package com.epam.finaltask.AOP.logging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "tracing")
+@RequiredArgsConstructor
+@Slf4j
+public class TracingEndpoint {
+
+    private final TracingProperties tracingProperties;
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        return Map.of(
+                "enabled", tracingProperties.isEnabled(),
+                "sampleRate", tracingProperties.getSampleRate(),
+                "slowThresholdMs", tracingProperties.getSlowThreshold().toMillis()
+        );
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Boolean enabled,
+                                         @Nullable Double sampleRate,
+                                         @Nullable Long slowThresholdMs) {
+        if (enabled != null) {
+            tracingProperties.setEnabled(enabled);
+        }
+        if (sampleRate != null) {
+            tracingProperties.setSampleRate(Math.max(0.0, Math.min(1.0, sampleRate)));
+        }
+        if (slowThresholdMs != null && slowThresholdMs >= 0) {
+            tracingProperties.setSlowThreshold(Duration.ofMillis(slowThresholdMs));
+        }
+
+        log.info("Tracing settings changed to {}", settings());
+
+        return settings();
+    }
+}
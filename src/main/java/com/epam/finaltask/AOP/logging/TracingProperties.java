@@ -0,0 +1,24 @@
+package com.epam.finaltask.AOP.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.tracing")
+@Component
+public class TracingProperties {
+
+    private volatile boolean enabled = true;
+
+    private volatile double sampleRate = 0.0;
+
+    private volatile Duration slowThreshold = Duration.ofMillis(500);
+
+    private Set<String> redactedParameters = Set.of("password", "token", "secret");
+}
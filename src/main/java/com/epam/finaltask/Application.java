@@ -4,9 +4,11 @@ import com.epam.finaltask.util.JwtProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableConfigurationProperties(JwtProperties.class)
+@EnableScheduling
 public class Application {
 
 	public static void main(String[] args) {
@@ -1,20 +1,40 @@
 package com.epam.finaltask.config;
 
 import com.epam.finaltask.dto.UserDTO;
-import com.epam.finaltask.dto.VoucherPaginatedResponse;
 import com.epam.finaltask.model.CacheType;
+import com.epam.finaltask.model.IdempotentResponse;
 import com.epam.finaltask.model.ResetToken;
+import com.epam.finaltask.repository.SharedCacheRepository;
+import com.epam.finaltask.service.LoadingTokenStorageService;
+import com.epam.finaltask.service.NotificationBus;
 import com.epam.finaltask.service.TokenStorageService;
+import com.epam.finaltask.service.VoucherCountStorageService;
+import com.epam.finaltask.service.VoucherPageStorageService;
 import com.epam.finaltask.service.impl.AbstractTokenStorage;
+import com.epam.finaltask.service.impl.RefreshAheadCache;
+import com.epam.finaltask.service.impl.TwoLevelCache;
+import com.epam.finaltask.service.impl.VoucherCountStorage;
+import com.epam.finaltask.service.impl.VoucherPageStorage;
+import com.epam.finaltask.util.DistributedCacheProperties;
 import com.epam.finaltask.util.JwtProperties;
+import com.epam.finaltask.util.RefreshAheadProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 
 import java.time.Duration;
 import java.util.Arrays;
@@ -29,34 +49,45 @@ import static com.epam.finaltask.model.CacheType.CacheNames.*;
 public class CacheConfig {
 
     private final JwtProperties jwtProperties;
+    private final DistributedCacheProperties distributedCacheProperties;
+    private final SharedCacheRepository sharedCacheRepository;
+    private final NotificationBus notificationBus;
+    private final ObjectMapper objectMapper;
+    private final RefreshAheadProperties refreshAheadProperties;
+    @Qualifier("applicationTaskExecutor")
+    private final TaskExecutor taskExecutor;
 
     @Bean
-    public TokenStorageService<String> refreshTokenStorage() {
-        return new AbstractTokenStorage<>(cacheManager(), REFRESH_TOKENS, String.class) {
+    public TokenStorageService<ResetToken> resetTokenStorage() {
+        return new AbstractTokenStorage<>(cacheManager(), RESET_TOKENS, ResetToken.class) {
         };
     }
 
     @Bean
-    public TokenStorageService<ResetToken> resetTokenStorage() {
-        return new AbstractTokenStorage<>(cacheManager(), RESET_TOKENS, ResetToken.class) {
-        };
+    public VoucherPageStorageService voucherPagesStorage() {
+        return new VoucherPageStorage(cacheManager());
     }
 
     @Bean
-    public TokenStorageService<VoucherPaginatedResponse> voucherPagesStorage() {
-        return new AbstractTokenStorage<>(cacheManager(), VOUCHER_PAGES, VoucherPaginatedResponse.class) {
-        };
+    public VoucherCountStorageService voucherCountsStorage() {
+        return new VoucherCountStorage(cacheManager());
     }
 
     @Bean
-    public TokenStorageService<UserDTO> userProfilesStorage() {
+    public LoadingTokenStorageService<UserDTO> userProfilesStorage() {
         return new AbstractTokenStorage<>(cacheManager(), USER_PROFILES, UserDTO.class) {
         };
     }
 
     @Bean
-    public TokenStorageService<Integer> failedAttemptsStorage() {
-        return new AbstractTokenStorage<>(cacheManager(), FAILED_ATTEMPTS, Integer.class) {
+    public TokenStorageService<Long> revokedTokensStorage() {
+        return new AbstractTokenStorage<>(cacheManager(), REVOKED_TOKENS, Long.class) {
+        };
+    }
+
+    @Bean
+    public TokenStorageService<IdempotentResponse> idempotentResponseStorage() {
+        return new AbstractTokenStorage<>(cacheManager(), IDEMPOTENT_RESPONSES, IdempotentResponse.class) {
         };
     }
 
@@ -64,7 +95,7 @@ public class CacheConfig {
     public CacheManager cacheManager() {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
 
-        List<CaffeineCache> caches = Arrays.stream(CacheType.values())
+        List<Cache> caches = Arrays.stream(CacheType.values())
                 .map(this::buildCache)
                 .collect(Collectors.toList());
 
@@ -72,20 +103,72 @@ public class CacheConfig {
         return cacheManager;
     }
 
-    private CaffeineCache buildCache(CacheType type) {
+    @Bean
+    public MeterBinder cacheSizingMetrics() {
+        return registry -> Arrays.stream(CacheType.values()).forEach(type -> {
+            Tags tags = Tags.of("cache", type.getCacheName(), "cache.manager", "cacheManager");
+
+            if (type.isSizeBounded()) {
+                Gauge.builder("cache.capacity", type, CacheType::getMaxSize)
+                        .tags(tags)
+                        .description("Maximum number of entries the cache will hold")
+                        .register(registry);
+            }
+
+            Gauge.builder("cache.ttl", type, t -> resolveTtl(t).toSeconds())
+                    .tags(tags)
+                    .baseUnit("seconds")
+                    .description("Time after write before an entry expires")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getNearCache().getNativeCache(), cache.getName(), tags);
+    }
+
+    private Cache buildCache(CacheType type) {
+        Duration ttl = resolveTtl(type);
+
+        if (type.isRefreshAhead()) {
+            return new RefreshAheadCache(type.getCacheName(), newBuilder(type, ttl)
+                    .recordStats()
+                    .build(),
+                    refreshAheadProperties.getRefreshAfter(), refreshAheadProperties.getHotKeys(),
+                    taskExecutor, VoucherPageStorage::isCacheable);
+        }
+
+        if (!distributedCacheProperties.isEnabled() || !type.isShared()) {
+            return buildNearCache(type, ttl);
+        }
+
+        Duration nearTtl = ttl.compareTo(distributedCacheProperties.getNearTtl()) < 0
+                ? ttl : distributedCacheProperties.getNearTtl();
+        TwoLevelCache cache = new TwoLevelCache(buildNearCache(type, nearTtl),
+                newBuilder(type, distributedCacheProperties.getNegativeTtl()).build(),
+                ttl, sharedCacheRepository, notificationBus, objectMapper);
+        notificationBus.subscribe(cache.getTopic(), cache);
+        return cache;
+    }
+
+    private CaffeineCache buildNearCache(CacheType type, Duration ttl) {
         return new CaffeineCache(
                 type.getCacheName(),
-                Caffeine.newBuilder()
-                        .expireAfterWrite(resolveTtl(type))
-                        .maximumSize(type.getMaxSize())
+                newBuilder(type, ttl)
                         .recordStats()
                         .build()
         );
     }
 
+    private Caffeine<Object, Object> newBuilder(CacheType type, Duration ttl) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().expireAfterWrite(ttl);
+        return type.isSizeBounded() ? builder.maximumSize(type.getMaxSize()) : builder;
+    }
+
     private Duration resolveTtl(CacheType type) {
-        if (type == CacheType.REFRESH_TOKENS) {
-            return Duration.ofSeconds(jwtProperties.getRefreshToken().getExpiration());
+        if (type == CacheType.REVOKED_TOKENS) {
+            return Duration.ofMillis(jwtProperties.getExpiration());
         }
         return type.getTtl();
     }
@@ -1,5 +1,6 @@
 package com.epam.finaltask.config;
 
+import com.epam.finaltask.filter.IdempotencyFilter;
 import com.epam.finaltask.filter.JwtAuthenticationFilter;
 import com.epam.finaltask.filter.LoginAttemptFilter;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -22,4 +23,11 @@ public class FilterConfig {
         registration.setEnabled(false);
         return registration;
     }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> registrationIdempotencyFilter(IdempotencyFilter filter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
 }
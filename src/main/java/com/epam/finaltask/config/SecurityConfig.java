@@ -1,11 +1,13 @@
 package com.epam.finaltask.config;
 
 import com.epam.finaltask.config.handler.CustomOAuth2FailureHandler;
+import com.epam.finaltask.config.handler.LoginAttemptHandler;
 import com.epam.finaltask.config.handler.OAuth2AuthenticationSuccessHandler;
+import com.epam.finaltask.filter.IdempotencyFilter;
 import com.epam.finaltask.filter.JwtAuthenticationFilter;
 import com.epam.finaltask.filter.LoginAttemptFilter;
 import com.epam.finaltask.repository.HttpCookieOAuth2AuthorizationRequestRepository;
-import com.epam.finaltask.service.TokenStorageService;
+import com.epam.finaltask.service.RefreshTokenStorageService;
 import com.epam.finaltask.service.UserService;
 import com.epam.finaltask.service.impl.CustomOAuth2UserService;
 import com.epam.finaltask.util.HtmxAuthenticationEntryPoint;
@@ -16,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -24,6 +27,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
@@ -43,16 +47,18 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final LoginAttemptFilter loginAttemptFilter;
+    private final IdempotencyFilter idempotencyFilter;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final CustomOAuth2UserService oAuth2UserService;
     private final JwtUtil jwtUtil;
-    private final TokenStorageService<String> refreshTokenStorageService;
+    private final RefreshTokenStorageService refreshTokenStorageService;
     private final JwtProperties jwtProperties;
     private final HtmxAuthenticationEntryPoint htmxAuthenticationEntryPoint;
     private final CustomOAuth2FailureHandler customOAuth2FailureHandler;
     private final HttpCookieOAuth2AuthorizationRequestRepository cookieAuthorizationRequestRepository;
     private final OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
+    private final LoginAttemptHandler loginAttemptHandler;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -71,16 +77,19 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(request -> request
                         .requestMatchers("/api/auth/**", "/auth/**", "/error/error").permitAll()
-                        .requestMatchers("/favicon.ico", "/", "/index", "/css/**", "/js/**", "/vouchers").permitAll()
+                        .requestMatchers("/favicon.ico", "/", "/index", "/css/**", "/js/**", "/vouchers", "/vouchers/scroll").permitAll()
                         .requestMatchers("/api/auth/reset-password", "/auth/reset-password", "/user/**", "/api/user/**").authenticated()
                         .requestMatchers("/manager/**", "/api/manager/**").hasAnyRole("ADMIN", "MANAGER")
                         .requestMatchers("/admin/**", "/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/swagger-ui/**", "/swagger-resources/*", "/v3/api-docs/**").permitAll()
                         .anyRequest().authenticated())
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(loginAttemptFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class)
                 .formLogin(form -> form
                         .loginPage("/auth/sign-in")
                         .loginProcessingUrl("/auth/login-security-check")
@@ -124,7 +133,10 @@ public class SecurityConfig {
             }
 
             if (token != null) {
-                refreshTokenStorageService.revoke(jwtUtil.extractClaim(token, claims -> claims.get("id", String.class)));
+                String sessionId = jwtUtil.extractSessionId(token);
+                if (sessionId != null) {
+                    refreshTokenStorageService.revokeSession(sessionId);
+                }
             }
         };
     }
@@ -157,6 +169,12 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService.userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder);
+        // runs before the password check, so a blocked client gets no signal about the password
+        UserDetailsChecker accountStatus = new AccountStatusUserDetailsChecker();
+        authProvider.setPreAuthenticationChecks(user -> {
+            loginAttemptHandler.check(user);
+            accountStatus.check(user);
+        });
         return authProvider;
     }
 
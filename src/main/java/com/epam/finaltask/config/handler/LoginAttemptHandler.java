@@ -0,0 +1,46 @@
+package com.epam.finaltask.config.handler;
+
+import com.epam.finaltask.service.AttemptService;
+import com.epam.finaltask.util.ClientIpResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.stereotype.Component;
+
+// the single place that ties a username to a login attempt: the authentication provider hands us
+// the username whatever the request format, so form and JSON sign-ins are tracked alike
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginAttemptHandler implements UserDetailsChecker {
+
+    private final AttemptService attemptService;
+    private final ClientIpResolver clientIpResolver;
+
+    @Override
+    public void check(UserDetails user) {
+        if (attemptService.isBlocked(clientIpResolver.resolveCurrent(), user.getUsername())) {
+            throw new LockedException("Too many failed attempts");
+        }
+    }
+
+    @EventListener
+    public void onFailure(AuthenticationFailureBadCredentialsEvent event) {
+        String ip = clientIpResolver.resolveCurrent();
+        log.debug("Failed login for '{}' from {}", event.getAuthentication().getName(), ip);
+        attemptService.track(ip, event.getAuthentication().getName());
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        if (event.getAuthentication() instanceof UsernamePasswordAuthenticationToken authentication) {
+            attemptService.clearBlocked(clientIpResolver.resolveCurrent(), authentication.getName());
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.epam.finaltask.config.handler;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.model.UserPrincipal;
 import com.epam.finaltask.repository.HttpCookieOAuth2AuthorizationRequestRepository;
-import com.epam.finaltask.service.TokenStorageService;
+import com.epam.finaltask.service.RefreshTokenStorageService;
 import com.epam.finaltask.util.JwtProperties;
 import com.epam.finaltask.util.JwtUtil;
 import jakarta.servlet.ServletException;
@@ -19,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.util.UUID;
 
 import static com.epam.finaltask.util.CookieUtils.addCookie;
 
@@ -28,7 +29,7 @@ import static com.epam.finaltask.util.CookieUtils.addCookie;
 public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
     private final JwtUtil jwtUtil;
-    private final TokenStorageService<String> refreshTokenStorageService;
+    private final RefreshTokenStorageService refreshTokenStorageService;
     private final JwtProperties jwtProperties;
     private final HttpCookieOAuth2AuthorizationRequestRepository httpCookieOAuth2AuthorizationRequestRepository;
 
@@ -47,11 +48,9 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
 
             log.info("User found: {}", user.getEmail());
 
-            String accessToken = jwtUtil.generateAccessToken(user);
-            String refreshToken = jwtUtil.generateRefreshToken(user);
-
-            log.info("Revoking old tokens...");
-            refreshTokenStorageService.revoke(user.getId().toString());
+            String sessionId = UUID.randomUUID().toString();
+            String accessToken = jwtUtil.generateAccessToken(user, sessionId);
+            String refreshToken = jwtUtil.generateRefreshToken(user, sessionId);
 
             log.info("Storing new token...");
             refreshTokenStorageService.store(user.getId().toString(), refreshToken);
@@ -2,7 +2,6 @@ package com.epam.finaltask.contoller;
 
 import com.epam.finaltask.dto.*;
 import com.epam.finaltask.model.User;
-import com.epam.finaltask.service.AttemptService;
 import com.epam.finaltask.service.AuthenticationService;
 import com.epam.finaltask.service.ResetService;
 import com.epam.finaltask.service.UserService;
@@ -12,15 +11,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
-
 import static com.epam.finaltask.util.CookieUtils.addCookie;
 import static com.epam.finaltask.util.CookieUtils.deleteCookie;
 
@@ -33,7 +29,6 @@ public class AuthenticationController {
     private final ResetService resetService;
     private final JwtProperties jwtProperties;
     private final UserService userService;
-    private final AttemptService attemptService;
 
     @GetMapping("/sign-in")
     public String signIn(@RequestParam(value = "error", required = false) String error,
@@ -75,7 +70,6 @@ public class AuthenticationController {
     public String login(@ModelAttribute("loginRequest") @Valid LoginRequest loginRequest,
                         BindingResult bindingResult,
                         HttpServletResponse response,
-                        HttpServletRequest request,
                         Model model) {
 
         if (bindingResult.hasErrors()) {
@@ -83,23 +77,13 @@ public class AuthenticationController {
             return "auth/sign-in :: login-form";
         }
 
-        try {
-            AuthResponse authResponse = authenticationService.login(loginRequest);
-
-            attemptService.clearBlocked(getClientIP(request));
-
-            addCookie(response, "jwt_access", "/", authResponse.getAccessToken(), (int) (jwtProperties.getExpiration() / 1000));
-            addCookie(response, "jwt_refresh", "/auth/refresh", authResponse.getAccessToken(), (int) (jwtProperties.getExpiration() / 1000));
-
-            response.setHeader("HX-Redirect", "/index");
-            return null;
+        AuthResponse authResponse = authenticationService.login(loginRequest);
 
-        } catch (AuthenticationException e) {
-            String ip = getClientIP(request);
-            attemptService.track(ip);
+        addCookie(response, "jwt_access", "/", authResponse.getAccessToken(), (int) (jwtProperties.getExpiration() / 1000));
+        addCookie(response, "jwt_refresh", "/auth/refresh", authResponse.getAccessToken(), (int) (jwtProperties.getExpiration() / 1000));
 
-            throw e;
-        }
+        response.setHeader("HX-Redirect", "/index");
+        return null;
     }
 
     @GetMapping("/reset-password-form")
@@ -107,9 +91,10 @@ public class AuthenticationController {
                                Model model) {
 
         ResetRequest resetRequest = new ResetRequest();
+        String email = userService.getUserById(user.getId()).getEmail();
 
-        if (user.getEmail() != null && !user.getEmail().isEmpty()) {
-            resetRequest.setEmail(user.getEmail());
+        if (email != null && !email.isEmpty()) {
+            resetRequest.setEmail(email);
             model.addAttribute("hasEmail", true);
         } else {
             model.addAttribute("hasEmail", false);
@@ -193,10 +178,4 @@ public class AuthenticationController {
         response.setHeader("HX-Redirect", "/auth/sign-in?resetSuccess=true");
         return null;
     }
-
-    private String getClientIP(HttpServletRequest request) {
-        return Optional.ofNullable(request.getHeader("X-Forwarded-For"))
-                .map(h -> h.split(",")[0].trim())
-                .orElse(request.getRemoteAddr());
-    }
 }
@@ -78,7 +78,7 @@ public class UserController {
 
         UserDTO userDto = userService.getUserById(user.getId());
 
-        model.addAttribute("topup", new TopUpRequest());
+        model.addAttribute("topup", TopUpRequest.withGeneratedKey());
         model.addAttribute("user", userDto);
 
         return "fragments/user-profile :: profile-balance-fragment";
@@ -101,8 +101,9 @@ public class UserController {
             return "fragments/user-profile :: profile-balance-fragment";
         }
 
-        UserDTO userDto = userService.changeBalance(id, topUpRequest.getAmount());
+        UserDTO userDto = userService.changeBalance(id, topUpRequest.getAmount(), topUpRequest.getIdempotencyKey());
 
+        model.addAttribute("topup", TopUpRequest.withGeneratedKey());
         model.addAttribute("user", userDto);
 
         return "fragments/user-profile :: profile-balance-fragment";
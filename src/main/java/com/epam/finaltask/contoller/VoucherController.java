@@ -4,6 +4,8 @@ import com.epam.finaltask.dto.PersonalVoucherFilterRequest;
 import com.epam.finaltask.dto.VoucherFilerRequest;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.service.VoucherService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -11,14 +13,17 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.UUID;
 
 @Controller
+@Validated
 @RequiredArgsConstructor
 @RequestMapping("/vouchers")
 public class VoucherController {
@@ -35,6 +40,20 @@ public class VoucherController {
         return "fragments/voucher-list :: voucher-list-fragment";
     }
 
+    @GetMapping("/scroll")
+    public String scrollVouchers(Model model,
+                                 VoucherFilerRequest filer,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "10")
+                                 @Min(value = 1, message = "{validation.page.size}")
+                                 @Max(value = 100, message = "{validation.page.size}") int size) {
+
+        model.addAttribute("vouchers", voucherService.findWithCursor(filer, cursor, size));
+        model.addAttribute("scroll", true);
+
+        return "fragments/voucher-list :: voucher-list-fragment";
+    }
+
     @PostMapping("{id}/order")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
     public String orderVoucher(Model model,
@@ -0,0 +1,21 @@
+package com.epam.finaltask.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutRequest {
+
+    @NotEmpty(message = "{validation.checkout.vouchers.required}")
+    @Size(max = 50, message = "{validation.checkout.vouchers.size}")
+    private List<@NotNull(message = "{validation.voucher.id.format}") UUID> voucherIds;
+}
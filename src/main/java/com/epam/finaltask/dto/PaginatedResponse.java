@@ -17,8 +17,10 @@ public class PaginatedResponse<T> {
     private int currentPage;
     private int totalPages;
     private long totalItems;
+    private boolean totalApproximate;
     private int pageSize;
     private boolean hasNext;
     private boolean hasPrevious;
     private Object filter;
+    private String nextCursor;
 }
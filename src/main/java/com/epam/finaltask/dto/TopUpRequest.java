@@ -2,11 +2,13 @@ package com.epam.finaltask.dto;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Data
 @AllArgsConstructor
@@ -16,4 +18,13 @@ public class TopUpRequest {
     @NotNull(message = "{validation.payment.amount.required}")
     @Positive(message = "{validation.payment.amount.positive}")
     private BigDecimal amount;
+
+    @Size(max = 64)
+    private String idempotencyKey;
+
+    public static TopUpRequest withGeneratedKey() {
+        TopUpRequest request = new TopUpRequest();
+        request.setIdempotencyKey(UUID.randomUUID().toString());
+        return request;
+    }
 }
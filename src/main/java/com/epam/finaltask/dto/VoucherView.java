@@ -0,0 +1,32 @@
+package com.epam.finaltask.dto;
+
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import com.epam.finaltask.model.VoucherStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class VoucherView {
+
+    private final UUID id;
+    private final String title;
+    private final String description;
+    private final BigDecimal price;
+    private final TourType tourType;
+    private final TransferType transferType;
+    private final HotelType hotelType;
+    private final VoucherStatus status;
+    private final LocalDate arrivalDate;
+    private final LocalDate evictionDate;
+    private final UUID userId;
+    private final Boolean isHot;
+}
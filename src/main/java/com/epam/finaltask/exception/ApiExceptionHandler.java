@@ -6,6 +6,9 @@ import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
@@ -17,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -62,6 +66,9 @@ public class ApiExceptionHandler {
         } else if (ex instanceof DisabledException) {
             key = "error.auth.disabled";
             status = HttpStatus.LOCKED;
+        } else if (ex instanceof LockedException) {
+            key = "error.auth.blocked";
+            status = HttpStatus.TOO_MANY_REQUESTS;
         } else if (ex instanceof ExpiredJwtException) {
             key = "error.token.expired";
             status = HttpStatus.UNAUTHORIZED;
@@ -104,6 +111,23 @@ public class ApiExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, "error.validation.failed", null, request, validationErrors);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolations(
+            ConstraintViolationException ex,
+            HttpServletRequest request) {
+
+        List<ErrorResponse.ValidationError> validationErrors = ex.getConstraintViolations()
+                .stream()
+                .map(violation -> ErrorResponse.ValidationError.builder()
+                        .field(parameterName(violation))
+                        .message(violation.getMessage())
+                        .rejectedValue(violation.getInvalidValue())
+                        .build())
+                .toList();
+
+        return buildResponse(HttpStatus.BAD_REQUEST, "error.validation.failed", null, request, validationErrors);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception ex, HttpServletRequest request) {
         log.error("Unexpected error in {}: {}", request.getRequestURI(), ex.getMessage(), ex);
@@ -140,6 +164,15 @@ public class ApiExceptionHandler {
     private HttpStatus getStatusForException(LocalizedException ex) {
         if (ex instanceof NotEnoughBalanceException) return HttpStatus.NOT_ACCEPTABLE;
         if (ex instanceof AlreadyInUseException) return HttpStatus.CONFLICT;
+        if (ex instanceof MailQueueFullException) return HttpStatus.SERVICE_UNAVAILABLE;
         return HttpStatus.BAD_REQUEST;
     }
-}
\ No newline at end of file
+
+    private String parameterName(ConstraintViolation<?> violation) {
+        String name = null;
+        for (Path.Node node : violation.getPropertyPath()) {
+            name = node.getName();
+        }
+        return name;
+    }
+}
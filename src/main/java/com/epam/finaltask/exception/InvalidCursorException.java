@@ -0,0 +1,8 @@
+package com.epam.finaltask.exception;
+
+public class InvalidCursorException extends LocalizedException {
+
+    public InvalidCursorException() {
+        super("error.cursor.invalid");
+    }
+}
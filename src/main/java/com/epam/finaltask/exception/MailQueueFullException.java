@@ -0,0 +1,8 @@
+package com.epam.finaltask.exception;
+
+public class MailQueueFullException extends LocalizedException {
+
+    public MailQueueFullException() {
+        super("error.mail.queue_full");
+    }
+}
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
@@ -111,6 +114,34 @@ public class UIExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public String handleConstraintViolations(ConstraintViolationException ex,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response,
+                                             Model model,
+                                             Locale locale) {
+
+        List<ErrorResponse.ValidationError> validationErrors = ex.getConstraintViolations()
+                .stream()
+                .map(violation -> ErrorResponse.ValidationError.builder()
+                        .field(parameterName(violation))
+                        .message(violation.getMessage())
+                        .rejectedValue(violation.getInvalidValue())
+                        .build())
+                .toList();
+
+        return returnErrorAlert(
+                "error.validation.failed",
+                null,
+                request,
+                response,
+                model,
+                HttpStatus.BAD_REQUEST,
+                locale,
+                validationErrors
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public String handleGeneralException(Exception ex,
                                          HttpServletRequest request,
@@ -173,6 +204,7 @@ public class UIExceptionHandler {
     private HttpStatus getStatusForException(Exception ex) {
         if (ex instanceof NotEnoughBalanceException) return HttpStatus.NOT_ACCEPTABLE;
         if (ex instanceof AlreadyInUseException) return HttpStatus.CONFLICT;
+        if (ex instanceof MailQueueFullException) return HttpStatus.SERVICE_UNAVAILABLE;
         if (ex instanceof InvalidTokenException ||
                 ex instanceof ExpiredTokenException) return HttpStatus.UNAUTHORIZED;
         if (ex instanceof ResourceNotFoundException) return HttpStatus.NOT_FOUND;
@@ -199,4 +231,12 @@ public class UIExceptionHandler {
                 .validationErrors(validationErrors)
                 .build();
     }
+
+    private String parameterName(ConstraintViolation<?> violation) {
+        String name = null;
+        for (Path.Node node : violation.getPropertyPath()) {
+            name = node.getName();
+        }
+        return name;
+    }
 }
@@ -0,0 +1,225 @@
+package com.epam.finaltask.filter;
+
+import com.epam.finaltask.dto.ErrorResponse;
+import com.epam.finaltask.model.IdempotentResponse;
+import com.epam.finaltask.service.TokenStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final List<String> IDEMPOTENT_PATHS = List.of(
+            "/api/vouchers/*/order",
+            "/api/vouchers/checkout",
+            "/api/user/profile/*/balance/top-up"
+    );
+
+    private final TokenStorageService<IdempotentResponse> idempotentResponseStorage;
+    private final MessageSource messageSource;
+    private final LocaleResolver localeResolver;
+    private final ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+
+        return !"POST".equalsIgnoreCase(request.getMethod())
+                || key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH
+                || IDEMPOTENT_PATHS.stream().noneMatch(path -> pathMatcher.match(path, request.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = authentication.getName() + "|" + request.getRequestURI() + "|"
+                + request.getHeader(IDEMPOTENCY_KEY_HEADER);
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = hash(cachedRequest.body);
+
+        // the pending claim goes into the shared store, so a duplicate on another node is turned away too
+        if (!idempotentResponseStorage.storeIfAbsent(key, IdempotentResponse.pending(requestHash))) {
+            rejectDuplicate(key, requestHash, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(cachedRequest, responseWrapper);
+
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                idempotentResponseStorage.store(key, new IdempotentResponse(
+                        requestHash,
+                        responseWrapper.getStatus(),
+                        responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotentResponseStorage.revoke(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void rejectDuplicate(String key, String requestHash, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        IdempotentResponse stored = idempotentResponseStorage.get(key);
+
+        if (stored != null && !requestHash.equals(stored.getRequestHash())) {
+            log.warn("Idempotency key {} reused with a different request body", key);
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "error.idempotency.key_reused",
+                    "This idempotency key was already used with a different request.");
+            return;
+        }
+        // also covers a claim released between our insert and this read; the client simply retries
+        if (stored == null || stored.isPending()) {
+            writeError(request, response, HttpStatus.CONFLICT, "error.idempotency.in_progress",
+                    "This request is already being processed.");
+            return;
+        }
+        log.debug("Replaying stored response for idempotency key {}", key);
+        replay(stored, response);
+    }
+
+    private void replay(IdempotentResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String messageCode, String defaultMessage) throws IOException {
+
+        Locale locale = localeResolver.resolveLocale(request);
+
+        String message = messageSource.getMessage(messageCode, null, defaultMessage, locale);
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8");
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .statusCode(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getRequestURI())
+                .build();
+
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+    private String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.epam.finaltask.filter;
 
 import com.epam.finaltask.mapper.UserMapper;
 import com.epam.finaltask.model.User;
+import com.epam.finaltask.service.TokenRevocationService;
 import com.epam.finaltask.service.UserService;
+import com.epam.finaltask.util.JwtProperties;
 import com.epam.finaltask.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -30,8 +33,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final static String HEADER_NAME = "Authorization";
 
     private final JwtUtil jwtUtil;
+    private final JwtProperties jwtProperties;
     private final UserService userService;
     private final UserMapper userMapper;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -45,12 +50,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = extractJwtFromRequest(request);
 
             if (jwt != null) {
-                String username = jwtUtil.extractUsername(jwt);
+                Claims claims = jwtUtil.extractAllClaims(jwt);
+                String username = claims.getSubject();
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    User user = userMapper.toUser(userService.getUserByUsername(username));
+                    User user = resolveUser(claims);
 
-                    if (jwtUtil.isTokenValid(jwt, user)) {
+                    if (jwtUtil.isTokenValid(claims, user)
+                            && !tokenRevocationService.isRevoked(user.getId().toString(), claims.getIssuedAt())) {
                         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                                 user,
                                 null,
@@ -72,6 +79,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private User resolveUser(Claims claims) {
+        if (jwtProperties.isStateless() && jwtUtil.isAccessToken(claims)) {
+            return jwtUtil.toPrincipal(claims);
+        }
+        return userMapper.toUser(userService.getUserByUsername(claims.getSubject()));
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String authHeader = request.getHeader(HEADER_NAME);
         if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
@@ -2,6 +2,7 @@ package com.epam.finaltask.filter;
 
 import com.epam.finaltask.dto.ErrorResponse;
 import com.epam.finaltask.service.AttemptService;
+import com.epam.finaltask.util.ClientIpResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,7 +23,6 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Locale;
-import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -30,9 +30,10 @@ import java.util.Optional;
 public class LoginAttemptFilter extends OncePerRequestFilter {
 
     private final AttemptService attemptService;
+    private final ClientIpResolver clientIpResolver;
     private final MessageSource messageSource;
     private final LocaleResolver localeResolver;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -44,9 +45,8 @@ public class LoginAttemptFilter extends OncePerRequestFilter {
 
         if (isLoginRequest(request)) {
 
-            String ip = getClientIP(request);
-
-            if (attemptService.isBlocked(ip)) {
+            // the username is checked by the authentication provider, which sees it for form and JSON logins alike
+            if (attemptService.isBlocked(clientIpResolver.resolve(request))) {
                 handleBlockedResponse(request, response);
                 return;
             }
@@ -101,13 +101,7 @@ public class LoginAttemptFilter extends OncePerRequestFilter {
 
     private boolean isLoginRequest(HttpServletRequest request) {
         return (("/auth/perform_login".equals(request.getRequestURI())
-                || ("api/auth/perform_login".equals(request.getRequestURI())))
+                || ("/api/auth/sign-in".equals(request.getRequestURI())))
                 && "POST".equalsIgnoreCase(request.getMethod()));
     }
-
-    private String getClientIP(HttpServletRequest request) {
-        return Optional.ofNullable(request.getHeader("X-Forwarded-For"))
-                .map(h -> h.split(",")[0].trim())
-                .orElse(request.getRemoteAddr());
-    }
 }
\ No newline at end of file
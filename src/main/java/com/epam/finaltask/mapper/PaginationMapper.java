@@ -4,6 +4,7 @@ import com.epam.finaltask.dto.PaginatedResponse;
 import com.epam.finaltask.dto.VoucherDTO;
 import com.epam.finaltask.dto.VoucherPaginatedResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public class PaginationMapper {
 
@@ -15,6 +16,10 @@ public class PaginationMapper {
         return fill(page, new VoucherPaginatedResponse(), filter);
     }
 
+    public static VoucherPaginatedResponse toVoucherResponse(Slice<VoucherDTO> slice, Object filter, Long total) {
+        return fill(slice, new VoucherPaginatedResponse(), filter, total);
+    }
+
     private static <T, R extends PaginatedResponse<T>> R fill(Page<T> page, R response) {
         response.setData(page.getContent());
         response.setCurrentPage(page.getNumber());
@@ -33,4 +38,31 @@ public class PaginationMapper {
 
         return response;
     }
+
+    public static <T, R extends PaginatedResponse<T>> R fill(Slice<T> slice, R response, Object filter, Long total) {
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+
+        long totalItems;
+        if (!slice.hasContent()) {
+            totalItems = total != null ? total : offset;
+        } else if (!slice.hasNext()) {
+            totalItems = seen;
+        } else {
+            totalItems = Math.max(total == null ? 0 : total, seen + 1);
+        }
+
+        int size = slice.getSize() > 0 ? slice.getSize() : Math.max(slice.getNumberOfElements(), 1);
+
+        response.setData(slice.getContent());
+        response.setCurrentPage(slice.getNumber());
+        response.setTotalPages((int) ((totalItems + size - 1) / size));
+        response.setTotalItems(totalItems);
+        response.setTotalApproximate(total == null && (slice.hasNext() || !slice.hasContent()));
+        response.setPageSize(slice.getSize());
+        response.setHasNext(slice.hasNext());
+        response.setHasPrevious(slice.hasPrevious());
+        response.setFilter(filter);
+        return response;
+    }
 }
@@ -3,6 +3,7 @@ package com.epam.finaltask.mapper;
 import com.epam.finaltask.dto.UserDTO;
 import com.epam.finaltask.model.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -14,5 +15,6 @@ public interface UserMapper {
 
     UserDTO toUserDTO(User user);
 
+    @Mapping(target = "balance", ignore = true)
     void updateEntityFromDto(UserDTO dto, @MappingTarget User entity);
 }
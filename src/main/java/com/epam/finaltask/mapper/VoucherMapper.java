@@ -1,6 +1,7 @@
 package com.epam.finaltask.mapper;
 
 import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherView;
 import com.epam.finaltask.model.Voucher;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -13,4 +14,6 @@ public interface VoucherMapper {
 
     @Mapping(target = "userId", source = "user.id")
     VoucherDTO toVoucherDTO(Voucher voucher);
+
+    VoucherDTO toVoucherDTO(VoucherView voucherView);
 }
@@ -0,0 +1,52 @@
+package com.epam.finaltask.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "balance_ledger")
+public class BalanceLedgerEntry {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_ledger_seq")
+    @SequenceGenerator(name = "balance_ledger_seq", sequenceName = "balance_ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", columnDefinition = "ledger_entry_type")
+    private LedgerEntryType type;
+
+    @Column(name = "amount", precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "voucher_id")
+    private UUID voucherId;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(name = "applied")
+    private boolean applied;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -8,28 +8,40 @@ import java.time.Duration;
 @Getter
 public enum CacheType {
 
-    REFRESH_TOKENS(CacheNames.REFRESH_TOKENS, Duration.ZERO, 1000),
-    RESET_TOKENS(CacheNames.RESET_TOKENS, Duration.ofMinutes(15), 100),
-    VOUCHER_PAGES(CacheNames.VOUCHER_PAGES, Duration.ofDays(1), 100),
-    USER_PROFILES(CacheNames.USER_PROFILES, Duration.ofMinutes(15), 500),
-    FAILED_ATTEMPTS(CacheNames.FAILED_ATTEMPTS, Duration.ofMinutes(5), 500);
+    RESET_TOKENS(CacheNames.RESET_TOKENS, Duration.ofMinutes(15), 100, true, false),
+    VOUCHER_PAGES(CacheNames.VOUCHER_PAGES, Duration.ofDays(1), 1000, false, true),
+    VOUCHER_COUNTS(CacheNames.VOUCHER_COUNTS, Duration.ofMinutes(10), 1000, false, false),
+    USER_PROFILES(CacheNames.USER_PROFILES, Duration.ofMinutes(15), 500, true, false),
+    // Evicting a deny-list entry would re-admit the user's tokens, so it holds one entry per revoked
+    // user and drops it only once every access token it covers has expired.
+    REVOKED_TOKENS(CacheNames.REVOKED_TOKENS, Duration.ZERO, 0, true, false),
+    IDEMPOTENT_RESPONSES(CacheNames.IDEMPOTENT_RESPONSES, Duration.ofHours(24), 10_000, true, false);
 
     public static class CacheNames {
-        public static final String REFRESH_TOKENS = "refreshTokens";
         public static final String RESET_TOKENS = "resetTokens";
         public static final String VOUCHER_PAGES = "voucherPages";
+        public static final String VOUCHER_COUNTS = "voucherCounts";
         public static final String USER_PROFILES = "userProfiles";
-        public static final String FAILED_ATTEMPTS = "failedAttempts";
+        public static final String REVOKED_TOKENS = "revokedTokens";
+        public static final String IDEMPOTENT_RESPONSES = "idempotentResponses";
     }
 
     private final String cacheName;
     private final Duration ttl;
     private final long maxSize;
+    private final boolean shared;
+    private final boolean refreshAhead;
 
-    CacheType(String cacheName, Duration ttl, long maxSize) {
+    CacheType(String cacheName, Duration ttl, long maxSize, boolean shared, boolean refreshAhead) {
         this.cacheName = cacheName;
         this.ttl = ttl;
         this.maxSize = maxSize;
+        this.shared = shared;
+        this.refreshAhead = refreshAhead;
+    }
+
+    public boolean isSizeBounded() {
+        return maxSize > 0;
     }
 
 }
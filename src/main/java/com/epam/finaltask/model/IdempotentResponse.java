@@ -0,0 +1,26 @@
+package com.epam.finaltask.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
+public class IdempotentResponse {
+
+    private final String requestHash;
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+
+    // claims the key while the first request runs; no real response has status 0
+    public static IdempotentResponse pending(String requestHash) {
+        return new IdempotentResponse(requestHash, 0, null, new byte[0]);
+    }
+
+    @JsonIgnore
+    public boolean isPending() {
+        return status == 0;
+    }
+}
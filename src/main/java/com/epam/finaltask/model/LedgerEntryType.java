@@ -0,0 +1,5 @@
+package com.epam.finaltask.model;
+
+public enum LedgerEntryType {
+    OPENING, TOP_UP, ORDER, REFUND
+}
@@ -0,0 +1,13 @@
+package com.epam.finaltask.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LoginAttemptWindow {
+
+    private final long bucket;
+    private final long previousCount;
+    private final long currentCount;
+}
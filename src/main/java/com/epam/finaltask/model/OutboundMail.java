@@ -0,0 +1,27 @@
+package com.epam.finaltask.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@RequiredArgsConstructor
+public class OutboundMail implements Delayed {
+
+    private final SimpleMailMessage message;
+    private final int attempts;
+    private final long readyAtNanos;
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,12 @@
+package com.epam.finaltask.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SharedCacheEntry {
+
+    private final String valueType;
+    private final String value;
+}
@@ -70,6 +70,9 @@ public class Voucher extends BaseEntity {
     @Column(name = "is_hot")
     private Boolean isHot;
 
+    @Column(name = "claim_id", insertable = false, updatable = false)
+    private UUID claimId;
+
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
@@ -0,0 +1,50 @@
+package com.epam.finaltask.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@Getter
+@ToString
+public class VoucherChange {
+
+    private final Set<UUID> voucherIds = new HashSet<>();
+    private final Set<VoucherStatus> statuses = EnumSet.noneOf(VoucherStatus.class);
+    private final Set<TourType> tourTypes = EnumSet.noneOf(TourType.class);
+    private final Set<UUID> userIds = new HashSet<>();
+
+    public static VoucherChange of(Voucher voucher) {
+        return new VoucherChange().include(voucher);
+    }
+
+    public VoucherChange include(Voucher voucher) {
+        if (voucher == null) {
+            return this;
+        }
+        if (voucher.getId() != null) {
+            voucherIds.add(voucher.getId());
+        }
+        if (voucher.getStatus() != null) {
+            statuses.add(voucher.getStatus());
+        }
+        if (voucher.getTourType() != null) {
+            tourTypes.add(voucher.getTourType());
+        }
+        if (voucher.getUser() != null && voucher.getUser().getId() != null) {
+            userIds.add(voucher.getUser().getId());
+        }
+        return this;
+    }
+
+    public VoucherChange merge(VoucherChange other) {
+        voucherIds.addAll(other.voucherIds);
+        statuses.addAll(other.statuses);
+        tourTypes.addAll(other.tourTypes);
+        userIds.addAll(other.userIds);
+        return this;
+    }
+}
@@ -0,0 +1,85 @@
+package com.epam.finaltask.model;
+
+import com.epam.finaltask.dto.AdminVoucherFilterRequest;
+import com.epam.finaltask.dto.PersonalVoucherFilterRequest;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class VoucherPageDependency {
+
+    public enum Scope {
+        PUBLIC, ADMIN, PERSONAL, UNKNOWN
+    }
+
+    private final Scope scope;
+    private final UUID userId;
+    private final List<VoucherStatus> statuses;
+    private final List<TourType> tourTypes;
+    private final Set<UUID> voucherIds;
+
+    public static VoucherPageDependency of(VoucherPaginatedResponse page) {
+        Set<UUID> voucherIds = page.getData() == null ? Collections.emptySet() : page.getData().stream()
+                .map(VoucherDTO::getId)
+                .filter(Objects::nonNull)
+                .map(UUID::fromString)
+                .collect(Collectors.toSet());
+
+        return of(page.getFilter(), voucherIds);
+    }
+
+    public static VoucherPageDependency of(Object filter) {
+        return of(filter, Collections.emptySet());
+    }
+
+    private static VoucherPageDependency of(Object filter, Set<UUID> voucherIds) {
+        if (filter instanceof PersonalVoucherFilterRequest personalFilter) {
+            return new VoucherPageDependency(Scope.PERSONAL, personalFilter.getUserId(),
+                    personalFilter.getStatuses(), personalFilter.getTours(), voucherIds);
+        }
+        if (filter instanceof AdminVoucherFilterRequest adminFilter) {
+            return new VoucherPageDependency(Scope.ADMIN, null,
+                    adminFilter.getStatuses(), adminFilter.getTours(), voucherIds);
+        }
+        if (filter instanceof VoucherFilerRequest publicFilter) {
+            return new VoucherPageDependency(Scope.PUBLIC, null,
+                    List.of(VoucherStatus.CREATED), publicFilter.getTours(), voucherIds);
+        }
+        return new VoucherPageDependency(Scope.UNKNOWN, null, null, null, voucherIds);
+    }
+
+    public boolean isAffectedBy(VoucherChange change) {
+        if (!Collections.disjoint(voucherIds, change.getVoucherIds())) {
+            return true;
+        }
+
+        return switch (scope) {
+            case UNKNOWN -> true;
+            case PERSONAL -> (userId == null || change.getUserIds().contains(userId))
+                    && matches(statuses, change.getStatuses())
+                    && matches(tourTypes, change.getTourTypes());
+            case ADMIN, PUBLIC -> matches(statuses, change.getStatuses())
+                    && matches(tourTypes, change.getTourTypes());
+        };
+    }
+
+    private static <E> boolean matches(List<E> filterValues, Collection<E> changedValues) {
+        if (filterValues == null || filterValues.isEmpty() || changedValues.isEmpty()) {
+            return true;
+        }
+        return !Collections.disjoint(filterValues, changedValues);
+    }
+}
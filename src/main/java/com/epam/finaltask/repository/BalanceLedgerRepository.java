@@ -0,0 +1,66 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.model.BalanceLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO balance_ledger (user_id, entry_type, amount, voucher_id, idempotency_key)
+            VALUES (:userId, CAST(:type AS ledger_entry_type), :amount, :voucherId, :idempotencyKey)
+            ON CONFLICT (user_id, idempotency_key) WHERE idempotency_key IS NOT NULL DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("type") String type,
+                       @Param("amount") BigDecimal amount,
+                       @Param("voucherId") UUID voucherId,
+                       @Param("idempotencyKey") String idempotencyKey);
+
+    // one statement, so a concurrent applyPending is seen either entirely or not at all
+    @Query(value = """
+            SELECT u.balance + COALESCE((SELECT SUM(e.amount) FROM balance_ledger e
+                                         WHERE e.user_id = u.id AND NOT e.applied), 0)
+            FROM users u
+            WHERE u.id = :userId
+            """, nativeQuery = true)
+    BigDecimal findBalance(@Param("userId") UUID userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            WITH pending AS (
+                UPDATE balance_ledger SET applied = TRUE
+                WHERE id IN (SELECT id FROM balance_ledger
+                             WHERE NOT applied
+                             ORDER BY id
+                             LIMIT :limit
+                             FOR UPDATE SKIP LOCKED)
+                RETURNING user_id, amount
+            )
+            UPDATE users u
+            SET balance = u.balance + totals.amount, updated_at = NOW()
+            FROM (SELECT user_id, SUM(amount) AS amount FROM pending GROUP BY user_id) totals
+            WHERE u.id = totals.user_id
+            """, nativeQuery = true)
+    int applyPending(@Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            WITH pending AS (
+                UPDATE balance_ledger SET applied = TRUE
+                WHERE user_id = :userId AND NOT applied
+                RETURNING user_id, amount
+            )
+            UPDATE users u
+            SET balance = u.balance + totals.amount, updated_at = NOW()
+            FROM (SELECT user_id, SUM(amount) AS amount FROM pending GROUP BY user_id) totals
+            WHERE u.id = totals.user_id
+            """, nativeQuery = true)
+    int applyPending(@Param("userId") UUID userId);
+}
@@ -0,0 +1,55 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.model.LoginAttemptWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class LoginAttemptRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<LoginAttemptWindow> find(String limiterName, String key) {
+        return jdbcTemplate.query("""
+                        SELECT bucket, previous_count, current_count FROM login_attempts
+                        WHERE limiter_name = ? AND attempt_key = ? AND expires_at > NOW()
+                        """,
+                (rs, rowNum) -> new LoginAttemptWindow(rs.getLong("bucket"),
+                        rs.getLong("previous_count"), rs.getLong("current_count")),
+                limiterName, key).stream().findFirst();
+    }
+
+    // rolls the window and counts the attempt in one statement, so concurrent nodes never lose an increment;
+    // a node whose clock lags behind counts into the newer bucket
+    public void increment(String limiterName, String key, long bucket, Duration ttl) {
+        jdbcTemplate.update("""
+                        INSERT INTO login_attempts (limiter_name, attempt_key, bucket, previous_count, current_count, expires_at)
+                        VALUES (?, ?, ?, 0, 1, NOW() + ? * INTERVAL '1 millisecond')
+                        ON CONFLICT (limiter_name, attempt_key)
+                        DO UPDATE SET
+                            previous_count = CASE
+                                WHEN login_attempts.bucket >= EXCLUDED.bucket THEN login_attempts.previous_count
+                                WHEN login_attempts.bucket = EXCLUDED.bucket - 1 THEN login_attempts.current_count
+                                ELSE 0 END,
+                            current_count = CASE
+                                WHEN login_attempts.bucket >= EXCLUDED.bucket THEN login_attempts.current_count + 1
+                                ELSE 1 END,
+                            bucket = GREATEST(login_attempts.bucket, EXCLUDED.bucket),
+                            expires_at = EXCLUDED.expires_at
+                        """,
+                limiterName, key, bucket, ttl.toMillis());
+    }
+
+    public void delete(String limiterName, String key) {
+        jdbcTemplate.update("DELETE FROM login_attempts WHERE limiter_name = ? AND attempt_key = ?", limiterName, key);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM login_attempts WHERE expires_at <= NOW()");
+    }
+}
@@ -0,0 +1,45 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.model.RefreshTokenEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntry, String> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO refresh_tokens (token_hash, user_id, family_id, expires_at)
+            VALUES (:tokenHash, :userId, :familyId, :expiresAt)
+            """, nativeQuery = true)
+    int insert(@Param("tokenHash") String tokenHash,
+               @Param("userId") UUID userId,
+               @Param("familyId") UUID familyId,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshTokenEntry t SET t.revoked = true WHERE t.tokenHash = :tokenHash AND t.revoked = false")
+    int revokeIfActive(@Param("tokenHash") String tokenHash);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshTokenEntry t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshTokenEntry t SET t.revoked = true WHERE t.userId = :userId AND t.revoked = false")
+    int revokeByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE token_hash IN (SELECT token_hash FROM refresh_tokens
+                                 WHERE expires_at < :now
+                                 LIMIT :limit
+                                 FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
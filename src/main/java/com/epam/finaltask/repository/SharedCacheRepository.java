@@ -0,0 +1,59 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.model.SharedCacheEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class SharedCacheRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<SharedCacheEntry> find(String cacheName, String key) {
+        return jdbcTemplate.query("""
+                        SELECT value_type, value FROM shared_cache
+                        WHERE cache_name = ? AND cache_key = ? AND expires_at > NOW()
+                        """,
+                (rs, rowNum) -> new SharedCacheEntry(rs.getString("value_type"), rs.getString("value")),
+                cacheName, key).stream().findFirst();
+    }
+
+    public void upsert(String cacheName, String key, SharedCacheEntry entry, Duration ttl) {
+        jdbcTemplate.update("""
+                        INSERT INTO shared_cache (cache_name, cache_key, value_type, value, expires_at)
+                        VALUES (?, ?, ?, ?, NOW() + ? * INTERVAL '1 millisecond')
+                        ON CONFLICT (cache_name, cache_key)
+                        DO UPDATE SET value_type = EXCLUDED.value_type, value = EXCLUDED.value, expires_at = EXCLUDED.expires_at
+                        """,
+                cacheName, key, entry.getValueType(), entry.getValue(), ttl.toMillis());
+    }
+
+    // an expired row no longer counts, so it is taken over rather than blocking the key until cleanup
+    public boolean insertIfAbsent(String cacheName, String key, SharedCacheEntry entry, Duration ttl) {
+        return jdbcTemplate.update("""
+                        INSERT INTO shared_cache (cache_name, cache_key, value_type, value, expires_at)
+                        VALUES (?, ?, ?, ?, NOW() + ? * INTERVAL '1 millisecond')
+                        ON CONFLICT (cache_name, cache_key)
+                        DO UPDATE SET value_type = EXCLUDED.value_type, value = EXCLUDED.value, expires_at = EXCLUDED.expires_at
+                        WHERE shared_cache.expires_at <= NOW()
+                        """,
+                cacheName, key, entry.getValueType(), entry.getValue(), ttl.toMillis()) > 0;
+    }
+
+    public void delete(String cacheName, String key) {
+        jdbcTemplate.update("DELETE FROM shared_cache WHERE cache_name = ? AND cache_key = ?", cacheName, key);
+    }
+
+    public void deleteAll(String cacheName) {
+        jdbcTemplate.update("DELETE FROM shared_cache WHERE cache_name = ?", cacheName);
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM shared_cache WHERE expires_at <= NOW()");
+    }
+}
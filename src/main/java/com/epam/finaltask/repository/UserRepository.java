@@ -2,7 +2,11 @@ package com.epam.finaltask.repository;
 
 import com.epam.finaltask.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,4 +20,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findUserByUsername(String username);
 
     Optional<User> findUserByEmail(String email);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE users
+            SET balance = balance - :amount, updated_at = NOW()
+            WHERE id = :id AND balance >= :amount
+            """, nativeQuery = true)
+    int debit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
 }
@@ -3,8 +3,53 @@ package com.epam.finaltask.repository;
 import com.epam.finaltask.model.Voucher;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.UUID;
 
-public interface VoucherRepository extends JpaRepository<Voucher, UUID>, JpaSpecificationExecutor<Voucher> {
+public interface VoucherRepository extends JpaRepository<Voucher, UUID>, JpaSpecificationExecutor<Voucher>,
+        VoucherRepositoryCustom {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE vouchers
+            SET user_id = :userId, claim_id = :claimId, voucher_status_type = 'REGISTERED', updated_at = NOW()
+            WHERE id = :id AND user_id IS NULL
+            """, nativeQuery = true)
+    int claim(@Param("id") UUID id, @Param("userId") UUID userId, @Param("claimId") UUID claimId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE vouchers
+            SET user_id = :userId, claim_id = :claimId, voucher_status_type = 'REGISTERED', updated_at = NOW()
+            WHERE id IN (:ids) AND user_id IS NULL
+            """, nativeQuery = true)
+    int claimAll(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId, @Param("claimId") UUID claimId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE vouchers
+            SET user_id = NULL, claim_id = NULL, voucher_status_type = CAST(:status AS status_type), updated_at = NOW()
+            WHERE id = :id AND user_id = :ownerId
+            """, nativeQuery = true)
+    int release(@Param("id") UUID id, @Param("ownerId") UUID ownerId, @Param("status") String status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE vouchers
+            SET voucher_status_type = CAST(:status AS status_type), updated_at = NOW()
+            WHERE id = :id
+            """, nativeQuery = true)
+    int updateStatus(@Param("id") UUID id, @Param("status") String status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE vouchers
+            SET is_hot = :isHot, updated_at = NOW()
+            WHERE id = :id
+            """, nativeQuery = true)
+    int updateHot(@Param("id") UUID id, @Param("isHot") boolean isHot);
 }
@@ -0,0 +1,20 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.dto.VoucherView;
+import com.epam.finaltask.model.Voucher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface VoucherRepositoryCustom {
+
+    List<Voucher> findWithLimit(Specification<Voucher> spec, int limit);
+
+    Slice<VoucherView> findViewSlice(Specification<Voucher> spec, Pageable pageable);
+
+    Optional<VoucherView> findViewById(UUID id);
+}
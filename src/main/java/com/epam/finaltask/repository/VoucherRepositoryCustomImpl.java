@@ -0,0 +1,103 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.dto.VoucherView;
+import com.epam.finaltask.model.Voucher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class VoucherRepositoryCustomImpl implements VoucherRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Voucher> findWithLimit(Specification<Voucher> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Voucher> query = cb.createQuery(Voucher.class);
+        Root<Voucher> root = query.from(Voucher.class);
+
+        applySpecification(spec, root, query, cb);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Slice<VoucherView> findViewSlice(Specification<Voucher> spec, Pageable pageable) {
+        CriteriaQuery<VoucherView> query = buildViewQuery(spec, pageable);
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(entityManager.createQuery(query).getResultList());
+        }
+
+        List<VoucherView> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public Optional<VoucherView> findViewById(UUID id) {
+        Specification<Voucher> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+
+        return entityManager.createQuery(buildViewQuery(byId, Pageable.unpaged()))
+                .getResultStream()
+                .findFirst();
+    }
+
+    private CriteriaQuery<VoucherView> buildViewQuery(Specification<Voucher> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VoucherView> query = cb.createQuery(VoucherView.class);
+        Root<Voucher> root = query.from(Voucher.class);
+
+        query.select(cb.construct(VoucherView.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("price"),
+                root.get("tourType"),
+                root.get("transferType"),
+                root.get("hotelType"),
+                root.get("status"),
+                root.get("arrivalDate"),
+                root.get("evictionDate"),
+                root.get("user").get("id"),
+                root.get("isHot")
+        ));
+
+        applySpecification(spec, root, query, cb);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        return query;
+    }
+
+    private void applySpecification(Specification<Voucher> spec, Root<Voucher> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
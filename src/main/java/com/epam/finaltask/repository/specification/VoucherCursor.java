@@ -0,0 +1,120 @@
+package com.epam.finaltask.repository.specification;
+
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.exception.InvalidCursorException;
+import com.epam.finaltask.model.Voucher;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class VoucherCursor {
+
+    private static final String SEPARATOR = ".";
+    private static final String NULL_VALUE = "~";
+
+    private final String sort;
+    private final List<Object> values;
+
+    public static VoucherCursor of(VoucherFilerRequest filter, Voucher last) {
+        List<Object> values = new ArrayList<>();
+        for (SortKey key : keysFor(filter)) {
+            values.add(key.getAttribute().getter.apply(last));
+        }
+        return new VoucherCursor(sortOf(filter), values);
+    }
+
+    public static VoucherCursor decode(String token, VoucherFilerRequest filter) {
+        try {
+            String[] parts = token.split("\\" + SEPARATOR, -1);
+            List<SortKey> keys = keysFor(filter);
+
+            if (!sortOf(filter).equals(decodePart(parts[0])) || parts.length != keys.size() + 1) {
+                throw new InvalidCursorException();
+            }
+
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                String raw = NULL_VALUE.equals(parts[i + 1]) ? null : decodePart(parts[i + 1]);
+                values.add(raw == null ? null : keys.get(i).getAttribute().parser.apply(raw));
+            }
+            return new VoucherCursor(sortOf(filter), values);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        StringBuilder token = new StringBuilder(encodePart(sort));
+        for (Object value : values) {
+            token.append(SEPARATOR).append(value == null ? NULL_VALUE : encodePart(value.toString()));
+        }
+        return token.toString();
+    }
+
+    static List<SortKey> keysFor(VoucherFilerRequest filter) {
+        String field = filter.getSortField();
+        boolean isAsc = "asc".equalsIgnoreCase(filter.getSortDirection());
+
+        if ("price".equalsIgnoreCase(field)) {
+            return List.of(new SortKey(Attribute.PRICE, !isAsc), new SortKey(Attribute.ID, !isAsc));
+        } else if ("title".equalsIgnoreCase(field)) {
+            return List.of(new SortKey(Attribute.TITLE, !isAsc), new SortKey(Attribute.ID, !isAsc));
+        }
+        return List.of(
+                new SortKey(Attribute.IS_HOT, true),
+                new SortKey(Attribute.CREATED_AT, true),
+                new SortKey(Attribute.TITLE, false),
+                new SortKey(Attribute.ID, false)
+        );
+    }
+
+    private static String sortOf(VoucherFilerRequest filter) {
+        StringBuilder sort = new StringBuilder();
+        for (SortKey key : keysFor(filter)) {
+            sort.append(key.isDescending() ? '-' : '+').append(key.getAttribute().name().toLowerCase(Locale.ROOT));
+        }
+        return sort.toString();
+    }
+
+    private static String encodePart(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String value) {
+        return new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class SortKey {
+        private final Attribute attribute;
+        private final boolean descending;
+    }
+
+    @AllArgsConstructor
+    enum Attribute {
+        IS_HOT("isHot", true, Voucher::getIsHot, Boolean::valueOf),
+        CREATED_AT("createdAt", true, Voucher::getCreatedAt, LocalDateTime::parse),
+        TITLE("title", false, Voucher::getTitle, value -> value),
+        PRICE("price", false, Voucher::getPrice, BigDecimal::new),
+        ID("id", false, Voucher::getId, UUID::fromString);
+
+        final String field;
+        final boolean nullable;
+        final Function<Voucher, Object> getter;
+        final Function<String, Object> parser;
+    }
+}
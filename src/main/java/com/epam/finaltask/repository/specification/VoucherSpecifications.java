@@ -6,15 +6,23 @@ import com.epam.finaltask.dto.VoucherFilerRequest;
 import com.epam.finaltask.model.Voucher;
 import com.epam.finaltask.model.VoucherStatus;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaExpression;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
 
 public class VoucherSpecifications {
 
+    private static final char ESCAPE = '\\';
+    private static final String CANONICAL_UUID = "xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx";
+
     public static Specification<Voucher> withFilters(VoucherFilerRequest filter) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -30,14 +38,14 @@ public class VoucherSpecifications {
                 if (adminFilter.getStatuses() != null && !adminFilter.getStatuses().isEmpty()) {
                     predicates.add(root.get("status").in(adminFilter.getStatuses()));
                 }
-                if (adminFilter.getVoucherId() != null && !adminFilter.getVoucherId().isEmpty()) {
-                    predicates.add(cb.like(cb.lower(root.get("id").as(String.class)), "%" + adminFilter.getVoucherId().toLowerCase() + "%"));
+                if (adminFilter.getVoucherId() != null && !adminFilter.getVoucherId().isBlank()) {
+                    predicates.add(idMatches(root, cb, adminFilter.getVoucherId().trim().toLowerCase(Locale.ROOT)));
                 }
                 if (adminFilter.getIsHot() != null) {
                     predicates.add(cb.equal(root.get("isHot"), adminFilter.getIsHot()));
                 }
-                if (adminFilter.getTitle() != null && !adminFilter.getTitle().isEmpty()) {
-                    predicates.add(cb.like(cb.lower(root.get("title")), "%" + adminFilter.getTitle().toLowerCase() + "%"));
+                if (adminFilter.getTitle() != null && !adminFilter.getTitle().isBlank()) {
+                    predicates.add(cb.like(cb.lower(root.get("title")), "%" + escapeLike(adminFilter.getTitle().trim().toLowerCase(Locale.ROOT)) + "%", ESCAPE));
                 }
             } else {
                 predicates.add(cb.equal(root.get("status"), VoucherStatus.CREATED));
@@ -62,7 +70,19 @@ public class VoucherSpecifications {
                     query.orderBy(cb.desc(root.get("title")));
                 }
             } else {
-                if (filter instanceof AdminVoucherFilterRequest) {
+                if (filter instanceof AdminVoucherFilterRequest adminFilter && adminFilter.getTitle() != null && !adminFilter.getTitle().isBlank()) {
+                    String term = adminFilter.getTitle().trim().toLowerCase(Locale.ROOT);
+                    Expression<String> title = cb.lower(root.get("title"));
+                    query.orderBy(
+                            cb.asc(cb.<Integer>selectCase()
+                                    .when(cb.equal(title, term), 0)
+                                    .when(cb.like(title, escapeLike(term) + "%", ESCAPE), 1)
+                                    .when(cb.like(title, "% " + escapeLike(term) + "%", ESCAPE), 2)
+                                    .otherwise(3)),
+                            cb.desc(cb.function("similarity", Double.class, title, cb.literal(term))),
+                            cb.asc(root.get("title"))
+                    );
+                } else if (filter instanceof AdminVoucherFilterRequest) {
                     query.orderBy(
                             cb.desc(root.get("isHot")),
                             cb.asc(root.get("status")),
@@ -88,6 +108,91 @@ public class VoucherSpecifications {
         };
     }
 
+    public static Specification<Voucher> withCursor(VoucherFilerRequest filter, VoucherCursor cursor) {
+        return (root, query, cb) -> {
+            Predicate predicate = withFilters(filter).toPredicate(root, query, cb);
+            List<VoucherCursor.SortKey> keys = VoucherCursor.keysFor(filter);
+
+            List<Order> orders = new ArrayList<>();
+            for (VoucherCursor.SortKey key : keys) {
+                Expression<?> path = root.get(key.getAttribute().field);
+                orders.add(key.isDescending() ? cb.desc(path) : cb.asc(path));
+            }
+            query.orderBy(orders);
+
+            if (cursor == null) {
+                return predicate;
+            }
+
+            int last = keys.size() - 1;
+            Predicate seek = after(root, cb, keys.get(last), cursor.getValues().get(last));
+            for (int i = last - 1; i >= 0; i--) {
+                seek = cb.or(
+                        after(root, cb, keys.get(i), cursor.getValues().get(i)),
+                        cb.and(equalTo(root, cb, keys.get(i), cursor.getValues().get(i)), seek)
+                );
+            }
+
+            return cb.and(predicate, seek);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(Root<Voucher> root, CriteriaBuilder cb, VoucherCursor.SortKey key, Object value) {
+        Expression<Comparable> path = root.get(key.getAttribute().field);
+
+        if (value == null) {
+            return key.isDescending() ? cb.isNotNull(path) : cb.disjunction();
+        }
+        if (key.isDescending()) {
+            return cb.lessThan(path, (Comparable) value);
+        }
+        if (key.getAttribute().nullable) {
+            return cb.or(cb.greaterThan(path, (Comparable) value), cb.isNull(path));
+        }
+        return cb.greaterThan(path, (Comparable) value);
+    }
+
+    private static Predicate equalTo(Root<Voucher> root, CriteriaBuilder cb, VoucherCursor.SortKey key, Object value) {
+        Expression<?> path = root.get(key.getAttribute().field);
+        return value == null ? cb.isNull(path) : cb.equal(path, value);
+    }
+
+    private static Predicate idMatches(Root<Voucher> root, CriteriaBuilder cb, String term) {
+        Expression<String> id = cb.lower(((JpaExpression<?>) root.get("id")).cast(String.class));
+        Predicate contains = cb.like(id, "%" + escapeLike(term) + "%", ESCAPE);
+        if (!isUuidPrefix(term)) {
+            return contains;
+        }
+
+        String hex = term.replace("-", "");
+        return cb.or(cb.between(root.<UUID>get("id"), toUuid(hex, '0'), toUuid(hex, 'f')), contains);
+    }
+
+    private static boolean isUuidPrefix(String term) {
+        if (term.isEmpty() || term.length() > CANONICAL_UUID.length()) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            boolean matches = CANONICAL_UUID.charAt(i) == '-' ? c == '-' : Character.digit(c, 16) >= 0;
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static UUID toUuid(String hexPrefix, char padding) {
+        String hex = hexPrefix + String.valueOf(padding).repeat(32 - hexPrefix.length());
+        return UUID.fromString(hex.substring(0, 8) + "-" + hex.substring(8, 12) + "-" + hex.substring(12, 16)
+                + "-" + hex.substring(16, 20) + "-" + hex.substring(20));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     private static void addCommonPredicates(List<Predicate> predicates, Root<Voucher> root, CriteriaBuilder cb, VoucherFilerRequest filter) {
         if (filter.getTours() != null && !filter.getTours().isEmpty()) {
             predicates.add(root.get("tourType").in(filter.getTours()));
@@ -2,12 +2,15 @@ package com.epam.finaltask.restcontroller;
 
 import com.epam.finaltask.dto.TopUpRequest;
 import com.epam.finaltask.dto.UserDTO;
+import com.epam.finaltask.filter.IdempotencyFilter;
 import com.epam.finaltask.service.UserService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
@@ -15,6 +18,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/user")
 @RequiredArgsConstructor
+@Validated
 @PreAuthorize("isAuthenticated()")
 public class UserRestController {
 
@@ -38,8 +42,12 @@ public class UserRestController {
     @PostMapping("/profile/{id}/balance/top-up")
     @PreAuthorize("@auth.isUserObject(#id)")
     public ResponseEntity<UserDTO> updateBalance(@PathVariable String id,
-                                                 @RequestBody @Valid TopUpRequest topUpRequest) {
+                                                 @RequestBody @Valid TopUpRequest topUpRequest,
+                                                 @RequestHeader(value = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                 @Size(max = 64) String idempotencyKey) {
 
-        return ResponseEntity.ok().body(userService.changeBalance(id, topUpRequest.getAmount()));
+        String ledgerKey = topUpRequest.getIdempotencyKey() != null ? topUpRequest.getIdempotencyKey() : idempotencyKey;
+
+        return ResponseEntity.ok().body(userService.changeBalance(id, topUpRequest.getAmount(), ledgerKey));
     }
 }
@@ -1,22 +1,29 @@
 package com.epam.finaltask.restcontroller;
 
+import com.epam.finaltask.dto.CheckoutRequest;
 import com.epam.finaltask.dto.VoucherDTO;
 import com.epam.finaltask.dto.PersonalVoucherFilterRequest;
 import com.epam.finaltask.dto.PaginatedResponse;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.dto.VoucherFilerRequest;
 import com.epam.finaltask.service.VoucherService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
+@Validated
 @RequestMapping("/api/vouchers")
 @RequiredArgsConstructor
 public class VoucherRestController {
@@ -31,6 +38,17 @@ public class VoucherRestController {
         return ResponseEntity.ok().body(voucherService.findWithFilers(filer, pageable));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<PaginatedResponse<VoucherDTO>> scrollVouchers(VoucherFilerRequest filer,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "10")
+                                                                        @Min(value = 1, message = "{validation.page.size}")
+                                                                        @Max(value = 100, message = "{validation.page.size}") int size) {
+
+        return ResponseEntity.ok().body(voucherService.findWithCursor(filer, cursor, size));
+    }
+
     @PostMapping("{id}/order")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
     public ResponseEntity<VoucherDTO> orderVoucher(@AuthenticationPrincipal User user,
@@ -39,6 +57,14 @@ public class VoucherRestController {
         return ResponseEntity.ok().body(voucherService.order(id, user.getId().toString()));
     }
 
+    @PostMapping("/checkout")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<List<VoucherDTO>> checkout(@AuthenticationPrincipal User user,
+                                                     @RequestBody @Valid CheckoutRequest checkoutRequest) {
+
+        return ResponseEntity.ok().body(voucherService.checkout(checkoutRequest.getVoucherIds(), user.getId().toString()));
+    }
+
     @GetMapping("/user/{id}")
     @PreAuthorize("@auth.isUserObject(#id)")
     public ResponseEntity<PaginatedResponse<VoucherDTO>> getUserVouchers(@PathVariable String id,
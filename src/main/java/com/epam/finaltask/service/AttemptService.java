@@ -2,9 +2,11 @@ package com.epam.finaltask.service;
 
 public interface AttemptService {
 
-    void track(String ip);
+    void track(String ip, String username);
 
     boolean isBlocked(String ip);
 
-    void clearBlocked(String ip);
+    boolean isBlocked(String ip, String username);
+
+    void clearBlocked(String ip, String username);
 }
@@ -0,0 +1,22 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.model.LedgerEntryType;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface BalanceLedgerService {
+
+    boolean credit(UUID userId, LedgerEntryType type, BigDecimal amount, UUID voucherId, String idempotencyKey);
+
+    boolean debit(UUID userId, List<Voucher> vouchers, UUID claimId);
+
+    boolean refund(UUID userId, Voucher voucher);
+
+    BigDecimal getBalance(User user);
+
+    int applyPending();
+}
@@ -0,0 +1,8 @@
+package com.epam.finaltask.service;
+
+import java.util.function.Supplier;
+
+public interface LoadingTokenStorageService<T> extends TokenStorageService<T> {
+
+    T get(String id, Supplier<T> loader);
+}
@@ -0,0 +1,8 @@
+package com.epam.finaltask.service;
+
+public interface MailQueueService {
+
+    void enqueueTextMail(String to, String subject, String text);
+
+    int dispatch();
+}
@@ -1,8 +1,12 @@
 package com.epam.finaltask.service;
 
+import org.springframework.mail.SimpleMailMessage;
+
 public interface MailService {
 
     void sendTextMail(String to, String subject, String text);
 
+    void sendTextMails(SimpleMailMessage... messages);
+
     void sendHtmlMail(String to, String subject, String htmlBody);
 }
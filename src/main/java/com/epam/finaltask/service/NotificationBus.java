@@ -0,0 +1,15 @@
+package com.epam.finaltask.service;
+
+public interface NotificationBus {
+
+    void publish(String topic, String payload);
+
+    void subscribe(String topic, Listener listener);
+
+    interface Listener {
+
+        void onMessage(String payload);
+
+        void onMessagesLost();
+    }
+}
@@ -0,0 +1,18 @@
+package com.epam.finaltask.service;
+
+public interface RefreshTokenStorageService {
+
+    void store(String userId, String token);
+
+    String get(String token);
+
+    boolean rotate(String oldToken, String newToken);
+
+    void revoke(String token);
+
+    void revokeSession(String sessionId);
+
+    void revokeAllForUser(String userId);
+
+    void clearAll();
+}
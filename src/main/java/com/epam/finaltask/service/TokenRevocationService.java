@@ -0,0 +1,10 @@
+package com.epam.finaltask.service;
+
+import java.util.Date;
+
+public interface TokenRevocationService {
+
+    void revokeAll(String userId);
+
+    boolean isRevoked(String userId, Date issuedAt);
+}
@@ -4,6 +4,8 @@ public interface TokenStorageService<T> {
 
     void store(String id, T token);
 
+    boolean storeIfAbsent(String id, T token);
+
     T get(String id);
 
     void revoke(String id);
@@ -13,7 +13,7 @@ public interface UserService {
 
     UserDTO updateUser(String username, UserDTO userDTO);
 
-    UserDTO changeBalance(String userId, BigDecimal amount);
+    UserDTO changeBalance(String userId, BigDecimal amount, String idempotencyKey);
 
     UserDTO getUserByUsername(String username);
 
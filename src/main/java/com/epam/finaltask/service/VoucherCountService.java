@@ -0,0 +1,13 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.model.VoucherChange;
+
+public interface VoucherCountService {
+
+    Long getCount(VoucherFilerRequest filter);
+
+    void evict(VoucherChange change);
+
+    void evictAll();
+}
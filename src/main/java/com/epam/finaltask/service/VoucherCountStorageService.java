@@ -0,0 +1,9 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherCount;
+
+public interface VoucherCountStorageService extends TokenStorageService<VoucherCount> {
+
+    void evict(VoucherChange change);
+}
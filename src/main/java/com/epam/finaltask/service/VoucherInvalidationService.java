@@ -0,0 +1,8 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.model.VoucherChange;
+
+public interface VoucherInvalidationService {
+
+    void publish(VoucherChange change);
+}
@@ -0,0 +1,11 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import com.epam.finaltask.model.VoucherChange;
+
+public interface VoucherPageStorageService extends LoadingTokenStorageService<VoucherPaginatedResponse> {
+
+    void evict(VoucherChange change);
+
+    void refreshAll();
+}
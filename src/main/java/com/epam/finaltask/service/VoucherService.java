@@ -3,11 +3,16 @@ package com.epam.finaltask.service;
 import com.epam.finaltask.dto.*;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+import java.util.UUID;
+
 public interface VoucherService {
     VoucherDTO create(VoucherDTO voucherDTO);
 
     VoucherDTO order(String id, String userId);
 
+    List<VoucherDTO> checkout(List<UUID> voucherIds, String userId);
+
     VoucherDTO update(String id, VoucherDTO voucherDTO);
 
     VoucherDTO getById(String id);
@@ -19,4 +24,6 @@ public interface VoucherService {
     VoucherPaginatedResponse findAllByUserId(PersonalVoucherFilterRequest filterRequest, Pageable pageable);
 
     VoucherPaginatedResponse findWithFilers(VoucherFilerRequest voucherFilerRequest, Pageable pageable);
+
+    VoucherPaginatedResponse findWithCursor(VoucherFilerRequest voucherFilerRequest, String cursor, int size);
 }
@@ -1,10 +1,14 @@
 package com.epam.finaltask.service.impl;
 
-import com.epam.finaltask.service.TokenStorageService;
+import com.epam.finaltask.service.LoadingTokenStorageService;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 
-public abstract class AbstractTokenStorage<T> implements TokenStorageService<T> {
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public abstract class AbstractTokenStorage<T> implements LoadingTokenStorageService<T> {
 
     private final Cache cache;
     private final Class<T> type;
@@ -22,6 +26,11 @@ public abstract class AbstractTokenStorage<T> implements TokenStorageService<T>
         cache.put(id, token);
     }
 
+    @Override
+    public boolean storeIfAbsent(String id, T token) {
+        return cache.putIfAbsent(id, token) == null;
+    }
+
     @Override
     public T get(String id) {
         var wrapper = cache.get(id);
@@ -31,6 +40,22 @@ public abstract class AbstractTokenStorage<T> implements TokenStorageService<T>
         return type.cast(wrapper.get());
     }
 
+    @Override
+    public T get(String id, Supplier<T> loader) {
+        return retrieve(() -> cache.get(id, loader::get));
+    }
+
+    protected T retrieve(Supplier<Object> lookup) {
+        try {
+            return type.cast(lookup.get());
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     @Override
     public void revoke(String id) {
         cache.evict(id);
@@ -40,4 +65,17 @@ public abstract class AbstractTokenStorage<T> implements TokenStorageService<T>
     public void clearAll() {
         cache.clear();
     }
+
+    protected Cache getCache() {
+        return cache;
+    }
+
+    protected void evictIf(Predicate<T> condition) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().asMap().values()
+                    .removeIf(value -> type.isInstance(value) && condition.test(type.cast(value)));
+        } else {
+            cache.clear();
+        }
+    }
 }
@@ -1,33 +1,85 @@
 package com.epam.finaltask.service.impl;
 
+import com.epam.finaltask.repository.LoginAttemptRepository;
 import com.epam.finaltask.service.AttemptService;
-import com.epam.finaltask.service.TokenStorageService;
-import lombok.RequiredArgsConstructor;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import com.epam.finaltask.util.LoginAttemptProperties;
+import com.epam.finaltask.util.RateLimiter;
+import com.epam.finaltask.util.SlidingWindowRateLimiter;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.util.Locale;
+
 @Service
-@RequiredArgsConstructor
 public class AttemptServiceImpl implements AttemptService {
 
-    private final TokenStorageService<Integer> failedAttemptStorage;
-    private final int limit = 5;
+    private static final String IP_LIMITER = "ip";
+    private static final String USERNAME_LIMITER = "username";
+
+    private final RateLimiter ipLimiter;
+    private final RateLimiter usernameLimiter;
+
+    @Autowired
+    public AttemptServiceImpl(LoginAttemptProperties properties,
+                              DistributedCacheProperties distributedCacheProperties,
+                              LoginAttemptRepository loginAttemptRepository) {
+        this(distributedCacheProperties.isEnabled()
+                        ? new SharedRateLimiter(IP_LIMITER, properties.getMaxPerIp(), properties.getWindow(),
+                                loginAttemptRepository, Clock.systemUTC())
+                        : local(properties.getMaxPerIp(), properties, Ticker.systemTicker()),
+                distributedCacheProperties.isEnabled()
+                        ? new SharedRateLimiter(USERNAME_LIMITER, properties.getMaxPerUsername(), properties.getWindow(),
+                                loginAttemptRepository, Clock.systemUTC())
+                        : local(properties.getMaxPerUsername(), properties, Ticker.systemTicker()));
+    }
+
+    public AttemptServiceImpl(LoginAttemptProperties properties, Ticker ticker) {
+        this(local(properties.getMaxPerIp(), properties, ticker),
+                local(properties.getMaxPerUsername(), properties, ticker));
+    }
+
+    private AttemptServiceImpl(RateLimiter ipLimiter, RateLimiter usernameLimiter) {
+        this.ipLimiter = ipLimiter;
+        this.usernameLimiter = usernameLimiter;
+    }
 
     @Override
-    public void track(String ip) {
-        String key = "login:fail:" + ip;
-        int count = failedAttemptStorage.get(key) == null ? 0 : failedAttemptStorage.get(key);
-        failedAttemptStorage.store(key, count + 1);
+    public void track(String ip, String username) {
+        if (ip != null) {
+            ipLimiter.record(ip);
+        }
+        if (username != null && !username.isBlank()) {
+            usernameLimiter.record(accountKey(ip, username));
+        }
     }
 
     @Override
     public boolean isBlocked(String ip) {
-        String key = "login:fail:" + ip;
-        int value = failedAttemptStorage.get(key) == null ? 0 : failedAttemptStorage.get(key);
-        return value >= limit;
+        return ip != null && ipLimiter.isLimited(ip);
     }
 
     @Override
-    public void clearBlocked(String ip) {
-        failedAttemptStorage.revoke(ip);
+    public boolean isBlocked(String ip, String username) {
+        return isBlocked(ip)
+                || (username != null && !username.isBlank() && usernameLimiter.isLimited(accountKey(ip, username)));
+    }
+
+    @Override
+    public void clearBlocked(String ip, String username) {
+        if (username != null) {
+            usernameLimiter.reset(accountKey(ip, username));
+        }
+    }
+
+    private static RateLimiter local(long limit, LoginAttemptProperties properties, Ticker ticker) {
+        return new SlidingWindowRateLimiter(limit, properties.getWindow(), properties.getMaxTrackedKeys(), ticker);
+    }
+
+    // scoped to the source address, so failures from one client can't lock the owner out elsewhere
+    private String accountKey(String ip, String username) {
+        return username.trim().toLowerCase(Locale.ROOT) + "|" + ip;
     }
 }
@@ -9,8 +9,8 @@ import com.epam.finaltask.model.ResetToken;
 import com.epam.finaltask.model.Role;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.service.AuthenticationService;
+import com.epam.finaltask.service.RefreshTokenStorageService;
 import com.epam.finaltask.service.ResetService;
-import com.epam.finaltask.service.TokenStorageService;
 import com.epam.finaltask.service.UserService;
 import com.epam.finaltask.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
@@ -30,7 +30,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
-    private final TokenStorageService<String> jwtTokenStorageService;
+    private final RefreshTokenStorageService jwtTokenStorageService;
     private final PasswordEncoder passwordEncoder;
     private final ResetService resetService;
 
@@ -67,7 +67,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     public AuthResponse refresh(RefreshTokenRequest refreshRequest) {
-        if (jwtTokenStorageService.get(jwtUtil.extractUsername(refreshRequest.getRefreshToken())) == null) {
+        if (jwtTokenStorageService.get(refreshRequest.getRefreshToken()) == null) {
             throw new InvalidTokenException();
         }
         if (jwtUtil.isTokenExpired(refreshRequest.getRefreshToken())) {
@@ -84,8 +84,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                         )
                 )
         );
+        if (!user.isActive()) {
+            jwtTokenStorageService.revokeAllForUser(user.getId().toString());
+            throw new InvalidTokenException();
+        }
 
-        return generateTokensAndStore(user);
+        AuthResponse authResponse = generateTokens(user, jwtUtil.extractSessionId(refreshRequest.getRefreshToken()));
+        if (!jwtTokenStorageService.rotate(refreshRequest.getRefreshToken(), authResponse.getRefreshToken())) {
+            throw new InvalidTokenException();
+        }
+
+        return authResponse;
     }
 
     @Override
@@ -93,7 +102,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         String id = jwtUtil.extractAllClaims(logoutRequest.getRefreshToken()).get("id", String.class);
 
         if (id != null) {
-            jwtTokenStorageService.revoke(id);
+            jwtTokenStorageService.revoke(logoutRequest.getRefreshToken());
         }
 
         SecurityContextHolder.clearContext();
@@ -101,9 +110,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     public AuthResponse generateTokensAndStore(User user) {
-        AuthResponse authResponse = generateTokens(user);
+        AuthResponse authResponse = generateTokens(user, UUID.randomUUID().toString());
 
-        jwtTokenStorageService.revoke(user.getId().toString());
         jwtTokenStorageService.store(user.getId().toString(), authResponse.getRefreshToken());
 
         return authResponse;
@@ -117,12 +125,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
         userService.changePassword(user, passwordEncoder.encode(resetPasswordRequest.getNewPassword()));
         resetService.removeResetToken(tokenRecord.getToken());
-        jwtTokenStorageService.revoke(user.getId());
+        jwtTokenStorageService.revokeAllForUser(user.getId());
     }
 
-    private AuthResponse generateTokens(User user) {
-        String jwtToken = jwtUtil.generateAccessToken(user);
-        String refreshToken = jwtUtil.generateRefreshToken(user);
+    private AuthResponse generateTokens(User user, String sessionId) {
+        String jwtToken = jwtUtil.generateAccessToken(user, sessionId);
+        String refreshToken = jwtUtil.generateRefreshToken(user, sessionId);
 
         return AuthResponse.builder()
                 .accessToken(jwtToken)
@@ -0,0 +1,88 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.model.BalanceLedgerEntry;
+import com.epam.finaltask.model.LedgerEntryType;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.repository.BalanceLedgerRepository;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.service.BalanceLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceLedgerServiceImpl implements BalanceLedgerService {
+
+    private static final int APPLY_BATCH_SIZE = 1000;
+
+    private final BalanceLedgerRepository balanceLedgerRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public boolean credit(UUID userId, LedgerEntryType type, BigDecimal amount, UUID voucherId, String idempotencyKey) {
+        if (balanceLedgerRepository.insertIfAbsent(userId, type.name(), amount, voucherId, idempotencyKey) == 0) {
+            log.info("Skipping duplicate {} for user {} with key {}", type, userId, idempotencyKey);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean debit(UUID userId, List<Voucher> vouchers, UUID claimId) {
+        BigDecimal total = vouchers.stream()
+                .map(Voucher::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        balanceLedgerRepository.applyPending(userId);
+
+        if (userRepository.debit(userId, total) == 0) {
+            return false;
+        }
+
+        balanceLedgerRepository.saveAll(vouchers.stream()
+                .map(voucher -> BalanceLedgerEntry.builder()
+                        .userId(userId)
+                        .type(LedgerEntryType.ORDER)
+                        .amount(voucher.getPrice().negate())
+                        .voucherId(voucher.getId())
+                        .idempotencyKey(claimKey("order:", voucher.getId(), claimId))
+                        .applied(true)
+                        .build())
+                .toList());
+
+        return true;
+    }
+
+    @Override
+    public boolean refund(UUID userId, Voucher voucher) {
+        return credit(userId, LedgerEntryType.REFUND, voucher.getPrice(), voucher.getId(),
+                claimKey("refund:", voucher.getId(), voucher.getClaimId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(User user) {
+        return balanceLedgerRepository.findBalance(user.getId());
+    }
+
+    private static String claimKey(String prefix, UUID voucherId, UUID claimId) {
+        return prefix + voucherId + ":" + claimId;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${application.ledger.apply-interval:500}",
+            fixedDelayString = "${application.ledger.apply-interval:500}")
+    public int applyPending() {
+        return balanceLedgerRepository.applyPending(APPLY_BATCH_SIZE);
+    }
+}
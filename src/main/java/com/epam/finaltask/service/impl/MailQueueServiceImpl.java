@@ -0,0 +1,160 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.exception.MailQueueFullException;
+import com.epam.finaltask.model.OutboundMail;
+import com.epam.finaltask.service.MailQueueService;
+import com.epam.finaltask.service.MailService;
+import com.epam.finaltask.util.MailQueueProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MailQueueServiceImpl implements MailQueueService {
+
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final MailService mailService;
+    private final MailQueueProperties mailQueueProperties;
+    private final Environment environment;
+
+    private final DelayQueue<OutboundMail> queue = new DelayQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private ScheduledExecutorService dispatcher;
+
+    // SMTP calls can block for seconds, so keep them off the shared scheduling pool
+    @PostConstruct
+    void start() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(dispatcherThreads());
+        long interval = mailQueueProperties.getDispatchInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // under spring.threads.virtual.enabled the blocking SMTP I/O parks a virtual thread like request handling does
+    private ThreadFactory dispatcherThreads() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("mail-dispatcher-").getVirtualThreadFactory();
+        }
+        return runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    @Override
+    public void enqueueTextMail(String to, String subject, String text) {
+        if (pending.incrementAndGet() > mailQueueProperties.getCapacity()) {
+            pending.decrementAndGet();
+            log.warn("Mail queue is full, rejecting mail to {}", to);
+            throw new MailQueueFullException();
+        }
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+
+        queue.add(new OutboundMail(message, 0, System.nanoTime()));
+    }
+
+    @Override
+    public int dispatch() {
+        int batchSize = mailQueueProperties.getBatchSize();
+        List<OutboundMail> batch = new ArrayList<>(batchSize);
+        int sent = 0;
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            int delivered = send(batch);
+            sent += delivered;
+
+            if (delivered < batch.size() || batch.size() < batchSize) {
+                break;
+            }
+            batch.clear();
+        }
+
+        if (sent > 0) {
+            log.info("Sent {} queued mails, {} pending", sent, pending.get());
+        }
+        return sent;
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("Mail dispatch failed", e);
+        }
+    }
+
+    private int send(List<OutboundMail> batch) {
+        try {
+            mailService.sendTextMails(batch.stream().map(OutboundMail::getMessage).toArray(SimpleMailMessage[]::new));
+            pending.addAndGet(-batch.size());
+            return batch.size();
+        } catch (MailSendException e) {
+            Set<Object> failed = e.getFailedMessages().keySet();
+            int delivered = 0;
+            for (OutboundMail mail : batch) {
+                if (failed.isEmpty() || failed.contains(mail.getMessage())) {
+                    retry(mail, e);
+                } else {
+                    pending.decrementAndGet();
+                    delivered++;
+                }
+            }
+            return delivered;
+        } catch (MailException e) {
+            batch.forEach(mail -> retry(mail, e));
+            return 0;
+        }
+    }
+
+    private void retry(OutboundMail mail, MailException cause) {
+        int attempts = mail.getAttempts() + 1;
+        String to = String.join(",", mail.getMessage().getTo());
+
+        if (attempts >= mailQueueProperties.getMaxAttempts()) {
+            pending.decrementAndGet();
+            log.error("Dropping mail to {} after {} attempts", to, attempts, cause);
+            return;
+        }
+
+        Duration backoff = mailQueueProperties.getRetryBackoff()
+                .multipliedBy(1L << Math.min(attempts - 1, MAX_BACKOFF_SHIFT));
+        log.warn("Mail to {} failed (attempt {}), retrying in {}s: {}",
+                to, attempts, backoff.toSeconds(), cause.getMessage());
+
+        queue.add(new OutboundMail(mail.getMessage(), attempts, System.nanoTime() + backoff.toNanos()));
+    }
+}
@@ -24,6 +24,12 @@ public class MailServiceImpl implements MailService {
         mailSender.send(message);
     }
 
+    // one SMTP session for the whole batch; a MailSendException reports which messages failed
+    @Override
+    public void sendTextMails(SimpleMailMessage... messages) {
+        mailSender.send(messages);
+    }
+
     @Override
     public void sendHtmlMail(String to, String subject, String htmlBody) {
         try {
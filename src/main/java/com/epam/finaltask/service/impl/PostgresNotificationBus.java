@@ -0,0 +1,146 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.service.NotificationBus;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Service
+@Slf4j
+public class PostgresNotificationBus implements NotificationBus, SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final String SEPARATOR = "|";
+
+    private final DataSource listenerDataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DistributedCacheProperties properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresNotificationBus(DataSourceProperties dataSourceProperties,
+                                   JdbcTemplate jdbcTemplate,
+                                   DistributedCacheProperties properties) {
+        // LISTEN holds its connection for the lifetime of the node, so it is opened outside the pool
+        this.listenerDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void publish(String topic, String payload) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null,
+                properties.getChannel(), nodeId + SEPARATOR + topic + SEPARATOR + payload);
+    }
+
+    @Override
+    public void subscribe(String topic, Listener listener) {
+        listeners.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+
+        running = true;
+        listenerThread = new Thread(this::listen, "notification-bus");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+
+                statement.execute("LISTEN " + properties.getChannel());
+                log.info("Listening for notifications on channel {} as node {}", properties.getChannel(), nodeId);
+
+                if (connectedBefore) {
+                    listeners.values().forEach(topicListeners -> topicListeners.forEach(Listener::onMessagesLost));
+                }
+                connectedBefore = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification listener lost its connection, reconnecting in {}s: {}",
+                        properties.getReconnectBackoff().toSeconds(), e.getMessage());
+                try {
+                    Thread.sleep(properties.getReconnectBackoff().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String message) {
+        String[] parts = message.split("\\" + SEPARATOR, 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        for (Listener listener : listeners.getOrDefault(parts[1], List.of())) {
+            try {
+                listener.onMessage(parts[2]);
+            } catch (RuntimeException e) {
+                log.error("Listener for topic {} failed on payload {}", parts[1], parts[2], e);
+            }
+        }
+    }
+}
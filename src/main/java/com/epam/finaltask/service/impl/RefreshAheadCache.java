@@ -0,0 +1,124 @@
+package com.epam.finaltask.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+@Slf4j
+public class RefreshAheadCache extends CaffeineCache {
+
+    private final Cache<Object, Object> cache;
+    private final Policy.FixedExpiration<Object, Object> expiration;
+    private final Duration refreshAfter;
+    private final Cache<Object, Callable<?>> loaders;
+    private final Executor executor;
+    private final Predicate<Object> cacheable;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    public RefreshAheadCache(String name, Cache<Object, Object> cache, Duration refreshAfter, long hotKeys,
+                             Executor executor, Predicate<Object> cacheable) {
+        super(name, cache);
+        this.cache = cache;
+        this.expiration = cache.policy().expireAfterWrite()
+                .orElseThrow(() -> new IllegalArgumentException("Refresh-ahead cache " + name + " needs expireAfterWrite"));
+        this.refreshAfter = refreshAfter;
+        this.loaders = Caffeine.newBuilder().maximumSize(hotKeys).build();
+        this.executor = executor;
+        this.cacheable = cacheable;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return get(key, valueLoader, () -> true);
+    }
+
+    // storable is checked once the loader returns, so a load that went stale while it ran is not stored
+    public <T> T get(Object key, Callable<T> valueLoader, BooleanSupplier storable) {
+        loaders.put(key, valueLoader);
+        T value = load(key, valueLoader, storable);
+
+        if (expiration.ageOf(key).filter(age -> age.compareTo(refreshAfter) > 0).isPresent()) {
+            refresh(key, valueLoader);
+        }
+        return value;
+    }
+
+    // concurrent misses share one load, but values that are not cacheable are never stored;
+    // callers that waited on such a load run the loader themselves
+    @SuppressWarnings("unchecked")
+    private <T> T load(Object key, Callable<T> valueLoader, BooleanSupplier storable) {
+        AtomicReference<Object> uncached = new AtomicReference<>();
+        Object stored = cache.get(key, k -> {
+            Object loaded = call(key, valueLoader);
+            if (loaded != null && cacheable.test(loaded) && storable.getAsBoolean()) {
+                return loaded;
+            }
+            uncached.set(loaded);
+            return null;
+        });
+
+        if (stored != null) {
+            return (T) fromStoreValue(stored);
+        }
+        return uncached.get() != null ? (T) uncached.get() : call(key, valueLoader);
+    }
+
+    private <T> T call(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    public void refreshAll() {
+        for (Object key : cache.asMap().keySet()) {
+            Callable<?> loader = loaders.getIfPresent(key);
+            if (loader != null) {
+                refresh(key, loader);
+            } else {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    private void refresh(Object key, Callable<?> loader) {
+        Object current = cache.getIfPresent(key);
+        if (current == null || !refreshing.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> reload(key, current, loader));
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            log.warn("Could not schedule a refresh of {} in cache {}", key, getName(), e);
+        }
+    }
+
+    private void reload(Object key, Object current, Callable<?> loader) {
+        try {
+            Object reloaded = loader.call();
+            if (reloaded != null && cacheable.test(reloaded)) {
+                cache.asMap().replace(key, current, reloaded);
+            } else {
+                cache.asMap().remove(key, current);
+            }
+        } catch (Exception e) {
+            log.warn("Refreshing {} in cache {} failed, serving the cached value", key, getName(), e);
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+}
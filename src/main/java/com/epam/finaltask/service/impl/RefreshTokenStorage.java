@@ -0,0 +1,219 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.model.RefreshTokenEntry;
+import com.epam.finaltask.repository.RefreshTokenRepository;
+import com.epam.finaltask.service.NotificationBus;
+import com.epam.finaltask.service.RefreshTokenStorageService;
+import com.epam.finaltask.util.JwtProperties;
+import com.epam.finaltask.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+@Service
+@Transactional
+@Slf4j
+public class RefreshTokenStorage implements RefreshTokenStorageService, NotificationBus.Listener {
+
+    static final String TOPIC = "refresh-tokens";
+
+    private static final String CACHE_NAME = "refreshTokens";
+    private static final String TOKEN_PREFIX = "token:";
+    private static final String FAMILY_PREFIX = "family:";
+    private static final String USER_PREFIX = "user:";
+    private static final String CLEAR_PAYLOAD = "";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtil jwtUtil;
+    private final JwtProperties jwtProperties;
+    private final NotificationBus notificationBus;
+    private final Clock clock = Clock.systemDefaultZone();
+    private final Cache<String, HotToken> hotSet;
+
+    public RefreshTokenStorage(RefreshTokenRepository refreshTokenRepository,
+                               JwtUtil jwtUtil,
+                               JwtProperties jwtProperties,
+                               NotificationBus notificationBus,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtil = jwtUtil;
+        this.jwtProperties = jwtProperties;
+        this.notificationBus = notificationBus;
+        this.hotSet = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getRefreshToken().getHotSetSize())
+                .expireAfter(Expiry.creating((String hash, HotToken token) -> {
+                    Duration remaining = Duration.between(clock.instant(), token.expiresAt());
+                    return remaining.isNegative() ? Duration.ZERO : remaining;
+                }))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, hotSet, CACHE_NAME);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        notificationBus.subscribe(TOPIC, this);
+    }
+
+    @Override
+    public void store(String userId, String token) {
+        String sessionId = jwtUtil.extractSessionId(token);
+        save(UUID.fromString(userId), sessionId == null ? UUID.randomUUID() : UUID.fromString(sessionId), token);
+    }
+
+    @Override
+    public String get(String token) {
+        String tokenHash = hash(token);
+
+        HotToken hot = hotSet.getIfPresent(tokenHash);
+        if (hot != null) {
+            return hot.userId().toString();
+        }
+
+        RefreshTokenEntry entry = refreshTokenRepository.findById(tokenHash).orElse(null);
+        if (entry == null || !entry.getExpiresAt().isAfter(now())) {
+            return null;
+        }
+        if (entry.isRevoked()) {
+            log.warn("Revoked refresh token presented for user {}, revoking its session", entry.getUserId());
+            revokeFamily(entry.getFamilyId());
+            return null;
+        }
+
+        hotSet.put(tokenHash, toHotToken(entry));
+        return entry.getUserId().toString();
+    }
+
+    @Override
+    public boolean rotate(String oldToken, String newToken) {
+        String oldHash = hash(oldToken);
+        RefreshTokenEntry current = refreshTokenRepository.findById(oldHash).orElse(null);
+        if (current == null) {
+            return false;
+        }
+
+        hotSet.invalidate(oldHash);
+        notificationBus.publish(TOPIC, TOKEN_PREFIX + oldHash);
+
+        if (refreshTokenRepository.revokeIfActive(oldHash) == 0) {
+            log.warn("Refresh token reused for user {}, revoking its session", current.getUserId());
+            revokeFamily(current.getFamilyId());
+            return false;
+        }
+
+        save(current.getUserId(), current.getFamilyId(), newToken);
+        return true;
+    }
+
+    @Override
+    public void revoke(String token) {
+        refreshTokenRepository.findById(hash(token))
+                .ifPresent(entry -> revokeFamily(entry.getFamilyId()));
+    }
+
+    @Override
+    public void revokeSession(String sessionId) {
+        revokeFamily(UUID.fromString(sessionId));
+    }
+
+    @Override
+    public void revokeAllForUser(String userId) {
+        UUID id = UUID.fromString(userId);
+        refreshTokenRepository.revokeByUserId(id);
+        evictIf(token -> token.userId().equals(id));
+        notificationBus.publish(TOPIC, USER_PREFIX + id);
+    }
+
+    @Override
+    public void clearAll() {
+        refreshTokenRepository.deleteAllInBatch();
+        hotSet.invalidateAll();
+        notificationBus.publish(TOPIC, CLEAR_PAYLOAD);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.jwt.refresh-token.cleanup-interval:60000}")
+    public int deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(now(), jwtProperties.getRefreshToken().getCleanupBatchSize());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired refresh tokens", deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void onMessage(String payload) {
+        if (CLEAR_PAYLOAD.equals(payload)) {
+            hotSet.invalidateAll();
+        } else if (payload.startsWith(TOKEN_PREFIX)) {
+            hotSet.invalidate(payload.substring(TOKEN_PREFIX.length()));
+        } else if (payload.startsWith(FAMILY_PREFIX)) {
+            UUID familyId = UUID.fromString(payload.substring(FAMILY_PREFIX.length()));
+            evictIf(token -> token.familyId().equals(familyId));
+        } else if (payload.startsWith(USER_PREFIX)) {
+            UUID userId = UUID.fromString(payload.substring(USER_PREFIX.length()));
+            evictIf(token -> token.userId().equals(userId));
+        }
+    }
+
+    @Override
+    public void onMessagesLost() {
+        hotSet.invalidateAll();
+    }
+
+    private void save(UUID userId, UUID familyId, String token) {
+        String tokenHash = hash(token);
+        Instant expiresAt = jwtUtil.extractExpiration(token).toInstant();
+
+        refreshTokenRepository.insert(tokenHash, userId, familyId, LocalDateTime.ofInstant(expiresAt, clock.getZone()));
+        hotSet.put(tokenHash, new HotToken(userId, familyId, expiresAt));
+    }
+
+    private void revokeFamily(UUID familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+        evictIf(token -> token.familyId().equals(familyId));
+        notificationBus.publish(TOPIC, FAMILY_PREFIX + familyId);
+    }
+
+    private void evictIf(Predicate<HotToken> condition) {
+        hotSet.asMap().values().removeIf(condition);
+    }
+
+    private HotToken toHotToken(RefreshTokenEntry entry) {
+        return new HotToken(entry.getUserId(), entry.getFamilyId(),
+                entry.getExpiresAt().atZone(clock.getZone()).toInstant());
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record HotToken(UUID userId, UUID familyId, Instant expiresAt) {
+    }
+}
@@ -2,7 +2,7 @@ package com.epam.finaltask.service.impl;
 
 import com.epam.finaltask.dto.UserDTO;
 import com.epam.finaltask.model.ResetToken;
-import com.epam.finaltask.service.MailService;
+import com.epam.finaltask.service.MailQueueService;
 import com.epam.finaltask.service.ResetService;
 import com.epam.finaltask.service.TokenStorageService;
 import com.epam.finaltask.service.UserService;
@@ -21,7 +21,7 @@ public class ResetServiceImpl implements ResetService {
     private final UserService userService;
     private final JwtProperties jwtProperties;
     private final TokenStorageService<ResetToken> resetTokenStorageService;
-    private final MailService mailService;
+    private final MailQueueService mailQueueService;
 
     private final static String RESET_API_URL = "https://localhost:8443/api/auth/reset-password/validate?token=";
     private final static String RESET_URL = "https://localhost:8443/auth/reset-password/validate?token=";
@@ -51,7 +51,7 @@ public class ResetServiceImpl implements ResetService {
 
         String body = RESET_BODY + resetUrl;
 
-        mailService.sendTextMail(userDTO.getEmail(), resetToken.getToken(), body);
+        mailQueueService.enqueueTextMail(userDTO.getEmail(), resetToken.getToken(), body);
     }
 
     @Override
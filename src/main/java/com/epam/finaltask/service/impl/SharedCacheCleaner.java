@@ -0,0 +1,36 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.repository.LoginAttemptRepository;
+import com.epam.finaltask.repository.SharedCacheRepository;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SharedCacheCleaner {
+
+    private final SharedCacheRepository sharedCacheRepository;
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final DistributedCacheProperties properties;
+
+    @Scheduled(fixedDelayString = "${application.cache.distributed.cleanup-interval:60000}")
+    public void deleteExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        int deleted = sharedCacheRepository.deleteExpired();
+        if (deleted > 0) {
+            log.debug("Deleted {} expired shared cache entries", deleted);
+        }
+
+        int attempts = loginAttemptRepository.deleteExpired();
+        if (attempts > 0) {
+            log.debug("Deleted {} expired login attempt windows", attempts);
+        }
+    }
+}
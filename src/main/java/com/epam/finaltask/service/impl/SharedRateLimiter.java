@@ -0,0 +1,59 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.model.LoginAttemptWindow;
+import com.epam.finaltask.repository.LoginAttemptRepository;
+import com.epam.finaltask.util.RateLimiter;
+
+import java.time.Clock;
+import java.time.Duration;
+
+public class SharedRateLimiter implements RateLimiter {
+
+    private final String name;
+    private final long limit;
+    private final long windowMillis;
+    private final Duration ttl;
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final Clock clock;
+
+    public SharedRateLimiter(String name, long limit, Duration window,
+                             LoginAttemptRepository loginAttemptRepository, Clock clock) {
+        this.name = name;
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.ttl = window.multipliedBy(2);
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.clock = clock;
+    }
+
+    @Override
+    public void record(String key) {
+        loginAttemptRepository.increment(name, key, bucketOf(clock.millis()), ttl);
+    }
+
+    @Override
+    public boolean isLimited(String key) {
+        LoginAttemptWindow window = loginAttemptRepository.find(name, key).orElse(null);
+        if (window == null) {
+            return false;
+        }
+
+        long now = clock.millis();
+        long bucket = bucketOf(now);
+        long current = window.getBucket() >= bucket ? window.getCurrentCount() : 0;
+        long previous = window.getBucket() >= bucket ? window.getPreviousCount()
+                : window.getBucket() == bucket - 1 ? window.getCurrentCount() : 0;
+
+        double elapsed = (double) Math.floorMod(now, windowMillis) / windowMillis;
+        return current + previous * (1.0 - elapsed) >= limit;
+    }
+
+    @Override
+    public void reset(String key) {
+        loginAttemptRepository.delete(name, key);
+    }
+
+    private long bucketOf(long millis) {
+        return Math.floorDiv(millis, windowMillis);
+    }
+}
@@ -0,0 +1,37 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.service.TokenRevocationService;
+import com.epam.finaltask.service.TokenStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final TokenStorageService<Long> revokedTokensStorage;
+
+    @Override
+    public void revokeAll(String userId) {
+        // iat has second precision, so the whole current second is revoked; tokens issued right after the
+        // revocation in that same second are rejected too, which costs at most a second of fresh tokens
+        long revokedAt = System.currentTimeMillis() / 1000 * 1000;
+
+        log.info("Revoking access tokens of user {} issued up to {}", userId, revokedAt);
+
+        revokedTokensStorage.store(userId, revokedAt);
+    }
+
+    @Override
+    public boolean isRevoked(String userId, Date issuedAt) {
+        Long revokedAt = revokedTokensStorage.get(userId);
+        if (revokedAt == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() <= revokedAt;
+    }
+}
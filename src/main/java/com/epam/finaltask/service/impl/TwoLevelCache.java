@@ -0,0 +1,219 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.model.SharedCacheEntry;
+import com.epam.finaltask.repository.SharedCacheRepository;
+import com.epam.finaltask.service.NotificationBus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache implements NotificationBus.Listener {
+
+    private static final String TOPIC_PREFIX = "cache:";
+    private static final String CLEAR_PAYLOAD = "";
+    private static final String[] ALLOWED_PACKAGES = {"com.epam.finaltask.", "java.lang."};
+    private static final Object ABSENT = Boolean.TRUE;
+
+    @Getter
+    private final CaffeineCache nearCache;
+    private final Cache<Object, Object> absentKeys;
+    private final Duration ttl;
+    private final SharedCacheRepository sharedCacheRepository;
+    private final NotificationBus notificationBus;
+    private final ObjectMapper objectMapper;
+
+    public TwoLevelCache(CaffeineCache nearCache,
+                         Cache<Object, Object> absentKeys,
+                         Duration ttl,
+                         SharedCacheRepository sharedCacheRepository,
+                         NotificationBus notificationBus,
+                         ObjectMapper objectMapper) {
+        super(false);
+        this.nearCache = nearCache;
+        this.absentKeys = absentKeys;
+        this.ttl = ttl;
+        this.sharedCacheRepository = sharedCacheRepository;
+        this.notificationBus = notificationBus;
+        this.objectMapper = objectMapper;
+    }
+
+    public String getTopic() {
+        return TOPIC_PREFIX + getName();
+    }
+
+    @Override
+    public String getName() {
+        return nearCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return nearCache.getNativeCache();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        ValueWrapper near = nearCache.get(key);
+        if (near != null) {
+            return near.get();
+        }
+        if (isKnownAbsent(key)) {
+            return null;
+        }
+
+        Object shared = loadShared(key);
+        if (shared != null) {
+            nearCache.put(key, shared);
+        }
+        return shared;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return nearCache.get(key, () -> {
+            Object shared = isKnownAbsent(key) ? null : loadShared(key);
+            if (shared != null) {
+                return (T) shared;
+            }
+
+            T value = valueLoader.call();
+            if (value != null) {
+                writeShared(key, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+
+        writeShared(key, value);
+        nearCache.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        // decided by the shared store, so only one node can win a key
+        if (sharedCacheRepository.insertIfAbsent(getName(), key.toString(), serialize(value), ttl)) {
+            absentKeys.invalidate(key);
+            notificationBus.publish(getTopic(), key.toString());
+            nearCache.put(key, value);
+            return null;
+        }
+
+        nearCache.evict(key);
+        absentKeys.invalidate(key);
+        // the winner's entry may already be gone again; still report that this call stored nothing
+        return new SimpleValueWrapper(loadShared(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        sharedCacheRepository.delete(getName(), key.toString());
+        nearCache.evict(key);
+        absentKeys.invalidate(key);
+        notificationBus.publish(getTopic(), key.toString());
+    }
+
+    @Override
+    public void clear() {
+        sharedCacheRepository.deleteAll(getName());
+        nearCache.clear();
+        absentKeys.invalidateAll();
+        notificationBus.publish(getTopic(), CLEAR_PAYLOAD);
+    }
+
+    @Override
+    public void onMessage(String payload) {
+        if (CLEAR_PAYLOAD.equals(payload)) {
+            nearCache.clear();
+            absentKeys.invalidateAll();
+        } else {
+            nearCache.evict(payload);
+            absentKeys.invalidate(payload);
+        }
+    }
+
+    @Override
+    public void onMessagesLost() {
+        nearCache.clear();
+        absentKeys.invalidateAll();
+    }
+
+    private void writeShared(Object key, Object value) {
+        sharedCacheRepository.upsert(getName(), key.toString(), serialize(value), ttl);
+        absentKeys.invalidate(key);
+        notificationBus.publish(getTopic(), key.toString());
+    }
+
+    private SharedCacheEntry serialize(Object value) {
+        try {
+            return new SharedCacheEntry(value.getClass().getName(), objectMapper.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getName() + " for cache " + getName(), e);
+        }
+    }
+
+    private boolean isKnownAbsent(Object key) {
+        return absentKeys.getIfPresent(key) == ABSENT;
+    }
+
+    private Object loadShared(Object key) {
+        // A notification for the key replaces or drops the pending marker, so a miss read before a
+        // concurrent write on another node is not remembered as absent.
+        Object pending = new Object();
+        absentKeys.put(key, pending);
+        try {
+            Object shared = sharedCacheRepository.find(getName(), key.toString())
+                    .map(this::deserialize)
+                    .orElse(null);
+            if (shared == null) {
+                absentKeys.asMap().replace(key, pending, ABSENT);
+            } else {
+                absentKeys.asMap().remove(key, pending);
+            }
+            return shared;
+        } catch (DataAccessException e) {
+            absentKeys.asMap().remove(key, pending);
+            log.warn("Shared store unavailable for cache {}, serving from near cache only: {}", getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Object deserialize(SharedCacheEntry entry) {
+        try {
+            if (!isAllowed(entry.getValueType())) {
+                log.warn("Refusing to deserialize {} from cache {}", entry.getValueType(), getName());
+                return null;
+            }
+            return objectMapper.readValue(entry.getValue(), Class.forName(entry.getValueType()));
+        } catch (JsonProcessingException | ClassNotFoundException e) {
+            log.warn("Dropping unreadable entry of {} from cache {}: {}", entry.getValueType(), getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isAllowed(String valueType) {
+        for (String allowedPackage : ALLOWED_PACKAGES) {
+            if (valueType.startsWith(allowedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,9 +7,13 @@ import com.epam.finaltask.exception.ResourceNotFoundException;
 import com.epam.finaltask.mapper.PaginationMapper;
 import com.epam.finaltask.mapper.UserMapper;
 import com.epam.finaltask.model.AuthProvider;
+import com.epam.finaltask.model.LedgerEntryType;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.repository.UserRepository;
-import com.epam.finaltask.service.TokenStorageService;
+import com.epam.finaltask.service.BalanceLedgerService;
+import com.epam.finaltask.service.RefreshTokenStorageService;
+import com.epam.finaltask.service.TokenRevocationService;
+import com.epam.finaltask.service.LoadingTokenStorageService;
 import com.epam.finaltask.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
@@ -29,8 +33,11 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final TokenStorageService<UserDTO> userTokenStorageService;
+    private final LoadingTokenStorageService<UserDTO> userTokenStorageService;
     private final ModelMapper modelMapper;
+    private final TokenRevocationService tokenRevocationService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final RefreshTokenStorageService refreshTokenStorage;
 
     @Override
     public UserDTO saveUser(UserDTO userDTO, String password) {
@@ -68,17 +75,17 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public UserDTO changeBalance(String userId, BigDecimal amount) {
+    public UserDTO changeBalance(String userId, BigDecimal amount, String idempotencyKey) {
         User user = userRepository.findById(UUID.fromString(userId))
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
 
         if (amount != null && amount.compareTo(BigDecimal.ZERO) > 0) {
-            user.setBalance(user.getBalance().add(amount));
+            balanceLedgerService.credit(user.getId(), LedgerEntryType.TOP_UP, amount, null, idempotencyKey);
 
             userTokenStorageService.revoke(user.getId().toString());
             userTokenStorageService.revoke(user.getUsername());
 
-            return userMapper.toUserDTO(userRepository.save(user));
+            return toUserDTO(user);
         } else {
             throw new RuntimeException("Amount cannot be negative or null");
         }
@@ -86,17 +93,10 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDTO getUserByUsername(String username) {
-        UserDTO user = userTokenStorageService.get(username);
-
-        if (user == null) {
-            user = userMapper.toUserDTO(userRepository.findUserByUsername(username).orElseThrow(
-                    () -> new ResourceNotFoundException("User", username)
-            ));
-            userTokenStorageService.store(user.getId(), user);
-            userTokenStorageService.store(user.getUsername(), user);
-        }
-
-        return user;
+        return userTokenStorageService.get(username, () -> toUserDTO(
+                userRepository.findUserByUsername(username).orElseThrow(
+                        () -> new ResourceNotFoundException("User", username)
+                )));
     }
 
     @Override
@@ -111,22 +111,20 @@ public class UserServiceImpl implements UserService {
         userTokenStorageService.revoke(returnUser.getId());
         userTokenStorageService.revoke(returnUser.getUsername());
 
+        if (!user.isActive()) {
+            tokenRevocationService.revokeAll(user.getId().toString());
+            refreshTokenStorage.revokeAllForUser(user.getId().toString());
+        }
+
         return returnUser;
     }
 
     @Override
     public UserDTO getUserById(UUID id) {
-        UserDTO user = userTokenStorageService.get(id.toString());
-
-        if (user == null) {
-            user = userMapper.toUserDTO(userRepository.findById(id).orElseThrow(
-                    () -> new ResourceNotFoundException("User", id)
-            ));
-            userTokenStorageService.store(user.getId(), user);
-            userTokenStorageService.store(user.getUsername(), user);
-        }
-
-        return user;
+        return userTokenStorageService.get(id.toString(), () -> toUserDTO(
+                userRepository.findById(id).orElseThrow(
+                        () -> new ResourceNotFoundException("User", id)
+                )));
     }
 
     @Override
@@ -166,4 +164,10 @@ public class UserServiceImpl implements UserService {
                 () -> new ResourceNotFoundException("User", username)
         );
     }
-}
\ No newline at end of file
+
+    private UserDTO toUserDTO(User user) {
+        UserDTO userDTO = userMapper.toUserDTO(user);
+        userDTO.setBalance(balanceLedgerService.getBalance(user));
+        return userDTO;
+    }
+}
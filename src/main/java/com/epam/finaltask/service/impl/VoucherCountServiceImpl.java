@@ -0,0 +1,99 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherCount;
+import com.epam.finaltask.model.VoucherPageDependency;
+import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.repository.specification.VoucherSpecifications;
+import com.epam.finaltask.service.VoucherCountService;
+import com.epam.finaltask.service.VoucherCountStorageService;
+import com.epam.finaltask.util.VoucherCacheKeyUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoucherCountServiceImpl implements VoucherCountService {
+
+    private final VoucherRepository voucherRepository;
+    private final VoucherCountStorageService voucherCountStorage;
+    @Qualifier("applicationTaskExecutor")
+    private final TaskExecutor taskExecutor;
+
+    private final Map<String, Refresh> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public Long getCount(VoucherFilerRequest filter) {
+        String key = VoucherCacheKeyUtil.countKey(filter);
+
+        VoucherCount cached = voucherCountStorage.get(key);
+        if (cached != null) {
+            return cached.getTotal();
+        }
+
+        refresh(key, filter);
+
+        return null;
+    }
+
+    @Override
+    public void evict(VoucherChange change) {
+        inFlight.values().removeIf(refresh -> VoucherPageDependency.of(refresh.filter).isAffectedBy(change));
+        voucherCountStorage.evict(change);
+    }
+
+    @Override
+    public void evictAll() {
+        inFlight.clear();
+        voucherCountStorage.clearAll();
+    }
+
+    private void refresh(String key, VoucherFilerRequest filter) {
+        Refresh refresh = new Refresh(filter);
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            return;
+        }
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    long total = voucherRepository.count(VoucherSpecifications.withFilters(filter));
+                    // An affecting write removes the refresh from inFlight, so a count read before it is dropped
+                    inFlight.computeIfPresent(key, (k, current) -> {
+                        if (current != refresh) {
+                            return current;
+                        }
+                        voucherCountStorage.store(key, new VoucherCount(filter, total));
+                        return null;
+                    });
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh voucher count for {}", key, e);
+                } finally {
+                    release(key, refresh);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            release(key, refresh);
+            log.warn("Voucher count refresh for {} was rejected", key);
+        }
+    }
+
+    private void release(String key, Refresh refresh) {
+        inFlight.computeIfPresent(key, (k, current) -> current == refresh ? null : current);
+    }
+
+    @RequiredArgsConstructor
+    private static final class Refresh {
+
+        private final VoucherFilerRequest filter;
+    }
+}
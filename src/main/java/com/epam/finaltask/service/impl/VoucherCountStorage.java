@@ -0,0 +1,25 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherCount;
+import com.epam.finaltask.model.VoucherPageDependency;
+import com.epam.finaltask.service.VoucherCountStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+
+import static com.epam.finaltask.model.CacheType.CacheNames.VOUCHER_COUNTS;
+
+@Slf4j
+public class VoucherCountStorage extends AbstractTokenStorage<VoucherCount> implements VoucherCountStorageService {
+
+    public VoucherCountStorage(CacheManager cacheManager) {
+        super(cacheManager, VOUCHER_COUNTS, VoucherCount.class);
+    }
+
+    @Override
+    public void evict(VoucherChange change) {
+        log.debug("Evicting voucher counts affected by {}", change);
+
+        evictIf(count -> VoucherPageDependency.of(count.getFilter()).isAffectedBy(change));
+    }
+}
@@ -0,0 +1,151 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.service.NotificationBus;
+import com.epam.finaltask.service.VoucherCountService;
+import com.epam.finaltask.service.VoucherInvalidationService;
+import com.epam.finaltask.service.VoucherPageStorageService;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoucherInvalidationServiceImpl implements VoucherInvalidationService, NotificationBus.Listener {
+
+    static final String TOPIC = "vouchers";
+
+    private static final String EVICT_ALL = "";
+    private static final int MAX_PAYLOAD_LENGTH = 7000;
+
+    private final NotificationBus notificationBus;
+    private final VoucherPageStorageService voucherPageStorage;
+    private final VoucherCountService voucherCountService;
+    private final DistributedCacheProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Object lock = new Object();
+    private VoucherChange outgoing;
+    private VoucherChange incoming;
+    private boolean incomingEvictAll;
+
+    @PostConstruct
+    void subscribe() {
+        notificationBus.subscribe(TOPIC, this);
+    }
+
+    @Override
+    public void publish(VoucherChange change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    @Override
+    public void onMessage(String payload) {
+        if (EVICT_ALL.equals(payload)) {
+            onMessagesLost();
+            return;
+        }
+
+        try {
+            VoucherChange change = objectMapper.readValue(payload, VoucherChange.class);
+            synchronized (lock) {
+                incoming = incoming == null ? change : incoming.merge(change);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable voucher change, evicting all catalog caches: {}", e.getMessage());
+            onMessagesLost();
+        }
+    }
+
+    @Override
+    public void onMessagesLost() {
+        synchronized (lock) {
+            incoming = null;
+            incomingEvictAll = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.cache.distributed.coalesce-interval:200}")
+    public void flush() {
+        VoucherChange toPublish;
+        VoucherChange toApply;
+        boolean evictAll;
+
+        synchronized (lock) {
+            toPublish = outgoing;
+            toApply = incoming;
+            evictAll = incomingEvictAll;
+            outgoing = null;
+            incoming = null;
+            incomingEvictAll = false;
+        }
+
+        if (toPublish != null) {
+            send(toPublish);
+        }
+
+        if (evictAll) {
+            log.debug("Refreshing all catalog caches after a remote change");
+            voucherPageStorage.refreshAll();
+            voucherCountService.evictAll();
+        } else if (toApply != null) {
+            log.debug("Applying remote voucher change {}", toApply);
+            voucherPageStorage.evict(toApply);
+            voucherCountService.evict(toApply);
+        }
+    }
+
+    private void send(VoucherChange change) {
+        try {
+            notificationBus.publish(TOPIC, serialize(change));
+        } catch (RuntimeException e) {
+            // put the change back so the next flush retries it instead of leaving other nodes stale
+            log.warn("Cannot notify other nodes of a voucher change, retrying on the next flush: {}", e.getMessage());
+            synchronized (lock) {
+                outgoing = outgoing == null ? change : change.merge(outgoing);
+            }
+        }
+    }
+
+    private void apply(VoucherChange change) {
+        voucherPageStorage.evict(change);
+        voucherCountService.evict(change);
+
+        if (properties.isEnabled()) {
+            enqueue(change);
+        }
+    }
+
+    private void enqueue(VoucherChange change) {
+        synchronized (lock) {
+            outgoing = (outgoing == null ? new VoucherChange() : outgoing).merge(change);
+        }
+    }
+
+    private String serialize(VoucherChange change) {
+        try {
+            String payload = objectMapper.writeValueAsString(change);
+            return payload.length() > MAX_PAYLOAD_LENGTH ? EVICT_ALL : payload;
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize voucher change, asking nodes to evict all: {}", e.getMessage());
+            return EVICT_ALL;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.epam.finaltask.service.impl;
+
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherPageDependency;
+import com.epam.finaltask.service.VoucherPageStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.epam.finaltask.model.CacheType.CacheNames.VOUCHER_PAGES;
+
+@Slf4j
+public class VoucherPageStorage extends AbstractTokenStorage<VoucherPaginatedResponse> implements VoucherPageStorageService {
+
+    // bumped before every eviction, so a page loaded across one is never kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public VoucherPageStorage(CacheManager cacheManager) {
+        super(cacheManager, VOUCHER_PAGES, VoucherPaginatedResponse.class);
+    }
+
+    @Override
+    public VoucherPaginatedResponse get(String id, Supplier<VoucherPaginatedResponse> loader) {
+        long started = generation.get();
+        AtomicBoolean loaded = new AtomicBoolean();
+        Supplier<VoucherPaginatedResponse> tracked = () -> {
+            loaded.set(true);
+            return loader.get();
+        };
+        Cache cache = getCache();
+
+        VoucherPaginatedResponse page = cache instanceof RefreshAheadCache refreshAheadCache
+                ? retrieve(() -> refreshAheadCache.get(id, tracked::get, () -> generation.get() == started))
+                : super.get(id, tracked);
+
+        // an eviction that ran while the page was being inserted could not see it yet
+        if (page != null && loaded.get() && generation.get() != started) {
+            if (cache instanceof CaffeineCache caffeineCache) {
+                caffeineCache.getNativeCache().asMap().remove(id, page);
+            } else {
+                cache.evict(id);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public void evict(VoucherChange change) {
+        log.debug("Evicting voucher pages affected by {}", change);
+
+        generation.incrementAndGet();
+        evictIf(page -> VoucherPageDependency.of(page).isAffectedBy(change));
+    }
+
+    @Override
+    public void clearAll() {
+        generation.incrementAndGet();
+        super.clearAll();
+    }
+
+    public static boolean isCacheable(Object page) {
+        return page instanceof VoucherPaginatedResponse response && !response.isTotalApproximate();
+    }
+
+    @Override
+    public void refreshAll() {
+        generation.incrementAndGet();
+        if (getCache() instanceof RefreshAheadCache refreshAheadCache) {
+            log.debug("Refreshing hot voucher pages in the background");
+            refreshAheadCache.refreshAll();
+        } else {
+            clearAll();
+        }
+    }
+}
@@ -8,23 +8,34 @@ import com.epam.finaltask.mapper.PaginationMapper;
 import com.epam.finaltask.mapper.VoucherMapper;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherChange;
 import com.epam.finaltask.model.VoucherStatus;
 import com.epam.finaltask.repository.UserRepository;
 import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.repository.specification.VoucherCursor;
 import com.epam.finaltask.repository.specification.VoucherSpecifications;
+import com.epam.finaltask.service.BalanceLedgerService;
 import com.epam.finaltask.service.TokenStorageService;
+import com.epam.finaltask.service.VoucherCountService;
+import com.epam.finaltask.service.VoucherInvalidationService;
+import com.epam.finaltask.service.VoucherPageStorageService;
 import com.epam.finaltask.service.VoucherService;
+import com.epam.finaltask.util.VoucherCacheKeyUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,14 +46,19 @@ public class VoucherServiceImpl implements VoucherService {
     private final VoucherRepository voucherRepository;
     private final VoucherMapper voucherMapper;
     private final UserRepository userRepository;
-    private final TokenStorageService<VoucherPaginatedResponse> voucherPageStorage;
+    private final VoucherPageStorageService voucherPageStorage;
     private final TokenStorageService<UserDTO> userTokenStorageService;
+    private final VoucherCountService voucherCountService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final VoucherInvalidationService voucherInvalidationService;
 
     @Override
     public VoucherDTO create(VoucherDTO voucherDTO) {
-        voucherPageStorage.clearAll();
+        Voucher voucher = voucherRepository.save(voucherMapper.toVoucher(voucherDTO));
 
-        return voucherMapper.toVoucherDTO(voucherRepository.save(voucherMapper.toVoucher(voucherDTO)));
+        evict(VoucherChange.of(voucher));
+
+        return voucherMapper.toVoucherDTO(voucher);
     }
 
     @Override
@@ -59,57 +75,121 @@ public class VoucherServiceImpl implements VoucherService {
             throw new AlreadyInUseException("Voucher", voucher.getId().toString());
         }
 
+        BigDecimal balance = balanceLedgerService.getBalance(user);
+        if (balance.compareTo(voucher.getPrice()) < 0) {
+            throw new NotEnoughBalanceException(balance, voucher.getPrice());
+        }
+
         log.info("Processing payment operation from user {} with voucher {}", userId, voucher);
 
-        BigDecimal newBalance = user.getBalance().subtract(voucher.getPrice());
+        VoucherChange change = VoucherChange.of(voucher);
+        UUID claimId = UUID.randomUUID();
+
+        if (voucherRepository.claim(voucher.getId(), user.getId(), claimId) == 0) {
+            throw new AlreadyInUseException("Voucher", voucher.getId().toString());
+        }
 
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
-            throw new NotEnoughBalanceException(user.getBalance(), voucher.getPrice());
+        if (!balanceLedgerService.debit(user.getId(), List.of(voucher), claimId)) {
+            throw new NotEnoughBalanceException(balance, voucher.getPrice());
         }
 
-        user.setBalance(newBalance);
-        userRepository.save(user);
         userTokenStorageService.revoke(user.getId().toString());
 
         voucher.setUser(user);
         voucher.setStatus(VoucherStatus.REGISTERED);
 
-        log.info("Successful payment operation, new user {} balance: {}", userId, user.getBalance());
+        log.info("Successful payment operation from user {} with voucher {}", userId, voucher.getId());
 
-        voucherPageStorage.clearAll();
+        evict(change.include(voucher));
 
-        return voucherMapper.toVoucherDTO(voucherRepository.save(voucher));
+        return voucherMapper.toVoucherDTO(voucher);
     }
 
     @Override
-    public VoucherDTO update(String id, VoucherDTO voucherDTO) {
-        if (!voucherRepository.existsById(UUID.fromString(id))) {
-            throw new ResourceNotFoundException("Voucher", id);
+    public List<VoucherDTO> checkout(List<UUID> voucherIds, String userId) {
+        Set<UUID> ids = new LinkedHashSet<>(voucherIds);
+        List<Voucher> vouchers = voucherRepository.findAllById(ids);
+
+        if (vouchers.size() != ids.size()) {
+            Set<UUID> found = vouchers.stream().map(Voucher::getId).collect(Collectors.toSet());
+            UUID missing = ids.stream().filter(id -> !found.contains(id)).findFirst().orElseThrow();
+            throw new ResourceNotFoundException("Voucher", missing.toString());
+        }
+
+        User user = userRepository.findById(UUID.fromString(userId)).orElseThrow(
+                () -> new ResourceNotFoundException("User", userId)
+        );
+
+        VoucherChange change = new VoucherChange();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Voucher voucher : vouchers) {
+            if (voucher.getUser() != null) {
+                throw new AlreadyInUseException("Voucher", voucher.getId().toString());
+            }
+            change.include(voucher);
+            total = total.add(voucher.getPrice());
+        }
+
+        BigDecimal balance = balanceLedgerService.getBalance(user);
+        if (balance.compareTo(total) < 0) {
+            throw new NotEnoughBalanceException(balance, total);
         }
 
-        Voucher voucher = voucherMapper.toVoucher(voucherDTO);
+        log.info("Processing checkout from user {} with {} vouchers", userId, ids.size());
 
-        voucherPageStorage.clearAll();
+        UUID claimId = UUID.randomUUID();
+        if (voucherRepository.claimAll(ids, user.getId(), claimId) != ids.size()) {
+            throw new AlreadyInUseException("Voucher", ids.toString());
+        }
+
+        if (!balanceLedgerService.debit(user.getId(), vouchers, claimId)) {
+            throw new NotEnoughBalanceException(balance, total);
+        }
+
+        userTokenStorageService.revoke(user.getId().toString());
+
+        for (Voucher voucher : vouchers) {
+            voucher.setUser(user);
+            voucher.setStatus(VoucherStatus.REGISTERED);
+            change.include(voucher);
+        }
+
+        log.info("Successful checkout from user {}, total: {}", userId, total);
 
-        return voucherMapper.toVoucherDTO(voucherRepository.save(voucher));
+        evict(change);
+
+        return vouchers.stream().map(voucherMapper::toVoucherDTO).toList();
     }
 
     @Override
-    public VoucherDTO getById(String id) {
-        if (!voucherRepository.existsById(UUID.fromString(id))) {
-            throw new ResourceNotFoundException("Voucher", id);
-        }
+    public VoucherDTO update(String id, VoucherDTO voucherDTO) {
+        Voucher existing = voucherRepository.findById(UUID.fromString(id)).orElseThrow(
+                () -> new ResourceNotFoundException("Voucher", id)
+        );
+
+        VoucherChange change = VoucherChange.of(existing);
+
+        Voucher voucher = voucherRepository.save(voucherMapper.toVoucher(voucherDTO));
 
-        return voucherMapper.toVoucherDTO(voucherRepository.getReferenceById(UUID.fromString(id)));
+        evict(change.include(voucher));
+
+        return voucherMapper.toVoucherDTO(voucher);
+    }
+
+    @Override
+    public VoucherDTO getById(String id) {
+        return voucherRepository.findViewById(UUID.fromString(id))
+                .map(voucherMapper::toVoucherDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Voucher", id));
     }
 
     @Override
     public void delete(String id) {
-        if (!voucherRepository.existsById(UUID.fromString(id))) {
-            throw new ResourceNotFoundException("Voucher", id);
-        }
+        Voucher voucher = voucherRepository.findById(UUID.fromString(id)).orElseThrow(
+                () -> new ResourceNotFoundException("Voucher", id)
+        );
 
-        voucherPageStorage.clearAll();
+        evict(VoucherChange.of(voucher));
 
         voucherRepository.deleteById(UUID.fromString(id));
     }
@@ -121,35 +201,35 @@ public class VoucherServiceImpl implements VoucherService {
                     () -> new ResourceNotFoundException("Voucher", id)
             );
 
-            User user = voucher.getUser();
+            User owner = voucher.getUser();
+            VoucherChange change = VoucherChange.of(voucher);
 
             if (statusRequest.getVoucherStatus() != null) {
-                switch (VoucherStatus.valueOf(statusRequest.getVoucherStatus())) {
-                    case CREATED:
-                        voucher.setUser(null);
-                        voucherRepository.save(voucher);
-
-                        break;
-                    case CANCELED:
-                        if (user != null) {
-                            user.setBalance(user.getBalance().add(voucher.getPrice()));
-                            voucher.setUser(null);
-                            userTokenStorageService.revoke(user.getId().toString());
-                            userRepository.save(user);
-                        }
-
-                        break;
+                VoucherStatus status = VoucherStatus.valueOf(statusRequest.getVoucherStatus());
+
+                if (owner != null && (status == VoucherStatus.CREATED || status == VoucherStatus.CANCELED)) {
+                    if (voucherRepository.release(voucher.getId(), owner.getId(), status.name()) == 0) {
+                        throw new AlreadyInUseException("Voucher", voucher.getId().toString());
+                    }
+                    if (status == VoucherStatus.CANCELED) {
+                        balanceLedgerService.refund(owner.getId(), voucher);
+                    }
+                    userTokenStorageService.revoke(owner.getId().toString());
+                    voucher.setUser(null);
+                } else {
+                    voucherRepository.updateStatus(voucher.getId(), status.name());
                 }
-                voucher.setStatus(VoucherStatus.valueOf(statusRequest.getVoucherStatus()));
+                voucher.setStatus(status);
             }
 
             if (statusRequest.getIsHot() != null) {
+                voucherRepository.updateHot(voucher.getId(), statusRequest.getIsHot());
                 voucher.setIsHot(statusRequest.getIsHot());
             }
 
-            voucherPageStorage.clearAll();
+            evict(change.include(voucher));
 
-            return voucherMapper.toVoucherDTO(voucherRepository.save(voucher));
+            return voucherMapper.toVoucherDTO(voucher);
         } catch (IllegalArgumentException e) {
             throw new DataIntegrityViolationException("Status is not valid");
         }
@@ -157,76 +237,59 @@ public class VoucherServiceImpl implements VoucherService {
 
     @Override
     public VoucherPaginatedResponse findAllByUserId(PersonalVoucherFilterRequest filterRequest, Pageable pageable) {
-        boolean isDefaultRequest = isFilterEmpty(filterRequest);
-
-        String cacheKey = String.format("user_vouchers_id%s_p%d",
-                filterRequest.getUserId(), pageable.getPageNumber());
-
-        if (isDefaultRequest) {
-            VoucherPaginatedResponse cached = voucherPageStorage.get(cacheKey);
-            if (cached != null) {
-                return cached;
-            }
-        }
-
-        Specification<Voucher> spec = VoucherSpecifications.withFilters(filterRequest);
-
-        Page<VoucherDTO> dtoPage = voucherRepository.findAll(spec, pageable).map(voucherMapper::toVoucherDTO);
-        VoucherPaginatedResponse paginatedResponse = PaginationMapper.toVoucherResponse(dtoPage, filterRequest);
-
-        if (isDefaultRequest) {
-            voucherPageStorage.store(cacheKey, paginatedResponse);
-        }
-
-        return paginatedResponse;
+        return findPage(filterRequest, pageable);
     }
 
     @Override
     public VoucherPaginatedResponse findWithFilers(VoucherFilerRequest voucherFilerRequest, Pageable pageable) {
-        boolean isDefaultRequest = isFilterEmpty(voucherFilerRequest);
+        return findPage(voucherFilerRequest, pageable);
+    }
 
-        String cacheKey = String.format("vouchers_p%d_s%d",
-                pageable.getPageNumber(), pageable.getPageSize());
+    @Override
+    public VoucherPaginatedResponse findWithCursor(VoucherFilerRequest voucherFilerRequest, String cursor, int size) {
+        String cacheKey = VoucherCacheKeyUtil.cursorKey(voucherFilerRequest, cursor, size);
 
-        if (isDefaultRequest) {
-            VoucherPaginatedResponse cached = voucherPageStorage.get(cacheKey);
-            if (cached != null) {
-                return cached;
-            }
-        }
+        return voucherPageStorage.get(cacheKey, () -> loadCursorPage(voucherFilerRequest, cursor, size));
+    }
 
-        Specification<Voucher> spec = VoucherSpecifications.withFilters(voucherFilerRequest);
+    private VoucherPaginatedResponse loadCursorPage(VoucherFilerRequest voucherFilerRequest, String cursor, int size) {
+        VoucherCursor after = cursor == null || cursor.isEmpty() ? null : VoucherCursor.decode(cursor, voucherFilerRequest);
+        Specification<Voucher> spec = VoucherSpecifications.withCursor(voucherFilerRequest, after);
 
-        Page<VoucherDTO> dtoPage = voucherRepository.findAll(spec, pageable).map(voucherMapper::toVoucherDTO);
-        VoucherPaginatedResponse paginatedResponse = PaginationMapper.toVoucherResponse(dtoPage, voucherFilerRequest);
+        List<Voucher> vouchers = voucherRepository.findWithLimit(spec, size + 1);
+        boolean hasNext = vouchers.size() > size;
+        if (hasNext) {
+            vouchers = vouchers.subList(0, size);
+        }
 
-        if (isDefaultRequest) {
-            voucherPageStorage.store(cacheKey, paginatedResponse);
+        VoucherPaginatedResponse paginatedResponse = new VoucherPaginatedResponse();
+        paginatedResponse.setData(vouchers.stream().map(voucherMapper::toVoucherDTO).toList());
+        paginatedResponse.setPageSize(size);
+        paginatedResponse.setHasNext(hasNext);
+        paginatedResponse.setHasPrevious(after != null);
+        paginatedResponse.setFilter(voucherFilerRequest);
+        if (hasNext) {
+            paginatedResponse.setNextCursor(VoucherCursor.of(voucherFilerRequest, vouchers.get(size - 1)).encode());
         }
 
         return paginatedResponse;
     }
 
-    private boolean isFilterEmpty(VoucherFilerRequest filter) {
-        boolean isEmpty = true;
+    private VoucherPaginatedResponse findPage(VoucherFilerRequest filterRequest, Pageable pageable) {
+        String cacheKey = VoucherCacheKeyUtil.pageKey(filterRequest, pageable);
 
-        if (filter instanceof PersonalVoucherFilterRequest personalFilter) {
-            isEmpty = personalFilter.getStatuses() == null;
-        }
+        return voucherPageStorage.get(cacheKey, () -> loadPage(filterRequest, pageable));
+    }
 
-        if (filter instanceof AdminVoucherFilterRequest adminFilter) {
-            isEmpty = adminFilter.getStatuses() == null &&
-                    adminFilter.getIsHot() == null &&
-                    adminFilter.getVoucherId() == null &&
-                    adminFilter.getTitle() == null;
-        }
+    private VoucherPaginatedResponse loadPage(VoucherFilerRequest filterRequest, Pageable pageable) {
+        Specification<Voucher> spec = VoucherSpecifications.withFilters(filterRequest);
+
+        Slice<VoucherDTO> dtoSlice = voucherRepository.findViewSlice(spec, pageable).map(voucherMapper::toVoucherDTO);
+        Long total = voucherCountService.getCount(filterRequest);
+        return PaginationMapper.toVoucherResponse(dtoSlice, filterRequest, total);
+    }
 
-        return filter.getTours() == null &&
-                filter.getMinPrice() == null &&
-                filter.getMaxPrice() == null &&
-                filter.getHotels() == null &&
-                filter.getTransfers() == null &&
-                filter.getSortField() == null &&
-                isEmpty;
+    private void evict(VoucherChange change) {
+        voucherInvalidationService.publish(change);
     }
 }
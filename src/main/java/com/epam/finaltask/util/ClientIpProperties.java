@@ -0,0 +1,17 @@
+package com.epam.finaltask.util;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "application.security.client-ip")
+@Component
+public class ClientIpProperties {
+
+    // addresses or CIDR ranges of reverse proxies allowed to set X-Forwarded-For
+    private List<String> trustedProxies = new ArrayList<>();
+}
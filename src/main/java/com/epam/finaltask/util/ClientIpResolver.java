@@ -0,0 +1,65 @@
+package com.epam.finaltask.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+@Component
+public class ClientIpResolver {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientIpResolver(ClientIpProperties properties) {
+        this.trustedProxies = properties.getTrustedProxies().stream()
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+
+        if (forwardedFor == null || !isTrusted(address)) {
+            return address;
+        }
+
+        // each trusted proxy appends the peer it saw, so walk from the right and stop at the first
+        // hop we don't operate; anything left of it was written by the client and can't be trusted
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            address = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    public String resolveCurrent() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return resolve(attributes.getRequest());
+        }
+        return null;
+    }
+
+    private boolean isTrusted(String address) {
+        if (address == null) {
+            return false;
+        }
+        try {
+            return trustedProxies.stream().anyMatch(matcher -> matcher.matches(address));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
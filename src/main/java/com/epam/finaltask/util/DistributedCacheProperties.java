@@ -0,0 +1,23 @@
+package com.epam.finaltask.util;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "application.cache.distributed")
+@Component
+public class DistributedCacheProperties {
+
+    private boolean enabled;
+
+    private String channel = "app_events";
+
+    private Duration nearTtl = Duration.ofMinutes(5);
+
+    private Duration negativeTtl = Duration.ofSeconds(10);
+
+    private Duration reconnectBackoff = Duration.ofSeconds(5);
+}
@@ -13,11 +13,17 @@ public class JwtProperties {
 
     private long expiration;
 
+    private boolean stateless;
+
     private final RefreshToken refreshToken = new RefreshToken();
 
     @Data
     public static class RefreshToken {
 
         private long expiration;
+
+        private long hotSetSize = 10_000;
+
+        private int cleanupBatchSize = 1000;
     }
 }
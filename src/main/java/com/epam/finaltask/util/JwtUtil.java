@@ -1,12 +1,13 @@
 package com.epam.finaltask.util;
 
+import com.epam.finaltask.model.Role;
 import com.epam.finaltask.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -14,15 +15,34 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
-@RequiredArgsConstructor
 public class JwtUtil {
 
+    public static final String SESSION_ID_CLAIM = "sid";
+
     private final JwtProperties jwtProperties;
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+
+    public JwtUtil(JwtProperties jwtProperties) {
+        this.jwtProperties = jwtProperties;
+        if (jwtProperties.getSecretKey() == null || jwtProperties.getSecretKey().isBlank()) {
+            throw new IllegalStateException("application.security.jwt.secret-key must be set");
+        }
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecretKey()));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
 
     public String generateAccessToken(UserDetails userDetails) {
+        return generateAccessToken(userDetails, null);
+    }
+
+    public String generateAccessToken(UserDetails userDetails, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
         if (userDetails instanceof User customUserDetails) {
             claims.put("id", customUserDetails.getId());
@@ -30,10 +50,15 @@ public class JwtUtil {
             claims.put("role", customUserDetails.getRole());
             claims.put("type", "access");
         }
+        putSessionId(claims, sessionId);
         return generateToken(claims, userDetails);
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
+        return generateRefreshToken(userDetails, (String) null);
+    }
+
+    public String generateRefreshToken(UserDetails userDetails, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
         if (userDetails instanceof User customUserDetails) {
             claims.put("id", customUserDetails.getId());
@@ -41,26 +66,34 @@ public class JwtUtil {
             claims.put("role", customUserDetails.getRole());
             claims.put("type", "refresh");
         }
+        putSessionId(claims, sessionId);
         return generateRefreshToken(claims, userDetails);
     }
 
+    private void putSessionId(Map<String, Object> claims, String sessionId) {
+        if (sessionId != null) {
+            claims.put(SESSION_ID_CLAIM, sessionId);
+        }
+    }
+
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     private String generateRefreshToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getRefreshToken().getExpiration()))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -74,8 +107,14 @@ public class JwtUtil {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration() != null
+                && claims.getExpiration().after(new Date());
     }
 
     public boolean isTokenExpired(String token) {
@@ -86,16 +125,24 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractSessionId(String token) {
+        return extractClaim(token, claims -> claims.get(SESSION_ID_CLAIM, String.class));
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecretKey());
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean isAccessToken(Claims claims) {
+        return "access".equals(claims.get("type", String.class));
+    }
+
+    public User toPrincipal(Claims claims) {
+        return User.builder()
+                .id(UUID.fromString(claims.get("id", String.class)))
+                .username(claims.getSubject())
+                .role(Role.valueOf(claims.get("role", String.class)))
+                .active(true)
+                .build();
+    }
+
+    public Claims extractAllClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
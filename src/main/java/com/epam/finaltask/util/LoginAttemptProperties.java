@@ -0,0 +1,21 @@
+package com.epam.finaltask.util;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "application.security.login-attempts")
+@Component
+public class LoginAttemptProperties {
+
+    private int maxPerIp = 20;
+
+    private int maxPerUsername = 5;
+
+    private Duration window = Duration.ofMinutes(15);
+
+    private long maxTrackedKeys = 100_000;
+}
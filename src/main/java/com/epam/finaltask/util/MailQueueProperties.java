@@ -0,0 +1,23 @@
+package com.epam.finaltask.util;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "application.mail")
+@Component
+public class MailQueueProperties {
+
+    private int capacity = 1000;
+
+    private int batchSize = 50;
+
+    private int maxAttempts = 5;
+
+    private Duration retryBackoff = Duration.ofSeconds(2);
+
+    private Duration dispatchInterval = Duration.ofSeconds(1);
+}
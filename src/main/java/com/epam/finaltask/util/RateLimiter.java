@@ -0,0 +1,10 @@
+package com.epam.finaltask.util;
+
+public interface RateLimiter {
+
+    void record(String key);
+
+    boolean isLimited(String key);
+
+    void reset(String key);
+}
@@ -0,0 +1,17 @@
+package com.epam.finaltask.util;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "application.cache.refresh-ahead")
+@Component
+public class RefreshAheadProperties {
+
+    private Duration refreshAfter = Duration.ofMinutes(5);
+
+    private long hotKeys = 200;
+}
@@ -0,0 +1,72 @@
+package com.epam.finaltask.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SlidingWindowRateLimiter implements RateLimiter {
+
+    private final long limit;
+    private final long windowNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicReference<Window>> windows;
+
+    public SlidingWindowRateLimiter(long limit, Duration window, long maxKeys, Ticker ticker) {
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+        this.ticker = ticker;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public void record(String key) {
+        long now = ticker.read();
+        windows.get(key, k -> new AtomicReference<>(new Window(bucketOf(now), 0, 0)))
+                .updateAndGet(window -> window.roll(bucketOf(now)).increment());
+    }
+
+    @Override
+    public boolean isLimited(String key) {
+        AtomicReference<Window> window = windows.getIfPresent(key);
+        if (window == null) {
+            return false;
+        }
+
+        long now = ticker.read();
+        return window.get().roll(bucketOf(now)).estimate(Math.floorMod(now, windowNanos), windowNanos) >= limit;
+    }
+
+    @Override
+    public void reset(String key) {
+        windows.invalidate(key);
+    }
+
+    private long bucketOf(long nanos) {
+        return Math.floorDiv(nanos, windowNanos);
+    }
+
+    private record Window(long bucket, long previous, long current) {
+
+        Window roll(long now) {
+            if (now == bucket) {
+                return this;
+            }
+            return new Window(now, now == bucket + 1 ? current : 0, 0);
+        }
+
+        Window increment() {
+            return new Window(bucket, previous, current + 1);
+        }
+
+        double estimate(long elapsedInBucket, long windowNanos) {
+            return current + previous * (1.0 - (double) elapsedInBucket / windowNanos);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.epam.finaltask.util;
+
+import com.epam.finaltask.dto.AdminVoucherFilterRequest;
+import com.epam.finaltask.dto.PersonalVoucherFilterRequest;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class VoucherCacheKeyUtil {
+
+    private VoucherCacheKeyUtil() {
+    }
+
+    public static String pageKey(VoucherFilerRequest filter, Pageable pageable) {
+        StringBuilder key = new StringBuilder(filterKey(filter))
+                .append("|p=").append(pageable.getPageNumber())
+                .append("|s=").append(pageable.getPageSize());
+
+        if (pageable.getSort().isSorted()) {
+            key.append("|o=").append(pageable.getSort());
+        }
+
+        return key.toString();
+    }
+
+    public static String cursorKey(VoucherFilerRequest filter, String cursor, int size) {
+        return filterKey(filter) + "|c=" + (cursor == null ? "" : cursor) + "|s=" + size;
+    }
+
+    public static String filterKey(VoucherFilerRequest filter) {
+        StringBuilder key = new StringBuilder(countKey(filter));
+        appendSort(key, filter.getSortField(), filter.getSortDirection());
+
+        return key.toString();
+    }
+
+    public static String countKey(VoucherFilerRequest filter) {
+        StringBuilder key = new StringBuilder();
+
+        if (filter instanceof PersonalVoucherFilterRequest personalFilter) {
+            key.append("user:").append(personalFilter.getUserId());
+            appendEnums(key, "st", personalFilter.getStatuses());
+        } else if (filter instanceof AdminVoucherFilterRequest adminFilter) {
+            key.append("admin");
+            appendEnums(key, "st", adminFilter.getStatuses());
+            appendText(key, "id", adminFilter.getVoucherId());
+            appendText(key, "title", adminFilter.getTitle());
+            if (adminFilter.getIsHot() != null) {
+                key.append("|hot=").append(adminFilter.getIsHot());
+            }
+        } else {
+            key.append("public");
+        }
+
+        appendEnums(key, "tr", filter.getTours());
+        appendEnums(key, "tf", filter.getTransfers());
+        appendEnums(key, "ht", filter.getHotels());
+        appendPrice(key, "min", filter.getMinPrice());
+        appendPrice(key, "max", filter.getMaxPrice());
+
+        return key.toString();
+    }
+
+    private static <E extends Enum<E>> void appendEnums(StringBuilder key, String name, List<E> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+
+        key.append('|').append(name).append('=').append(values.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .map(Enum::name)
+                .collect(Collectors.joining(",")));
+    }
+
+    private static void appendText(StringBuilder key, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            key.append('|').append(name).append('=')
+                    .append(URLEncoder.encode(value.trim().toLowerCase(Locale.ROOT), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void appendPrice(StringBuilder key, String name, BigDecimal value) {
+        if (value != null) {
+            key.append('|').append(name).append('=').append(value.stripTrailingZeros().toPlainString());
+        }
+    }
+
+    private static void appendSort(StringBuilder key, String field, String direction) {
+        if ("price".equalsIgnoreCase(field) || "title".equalsIgnoreCase(field)) {
+            key.append("|sort=").append(field.toLowerCase(Locale.ROOT))
+                    .append(':').append("asc".equalsIgnoreCase(direction) ? "asc" : "desc");
+        }
+    }
+}
@@ -1,16 +1,3 @@
--- Add indexes?
-BEGIN;
-
-DROP TYPE IF EXISTS user_role_type CASCADE;
-DROP TYPE IF EXISTS hotel_type CASCADE;
-DROP TYPE IF EXISTS tour_type CASCADE;
-DROP TYPE IF EXISTS transfer_type CASCADE;
-DROP TYPE IF EXISTS status_type CASCADE;
-DROP TYPE IF EXISTS auth_provider_type CASCADE;
-
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS vouchers CASCADE;
-
 CREATE EXTENSION IF NOT EXISTS "pgcrypto";
 
 CREATE TYPE auth_provider_type AS ENUM (
@@ -63,7 +50,7 @@ CREATE TYPE status_type AS ENUM (
     'CANCELED'
     );
 
-CREATE TABLE IF NOT EXISTS users (
+CREATE TABLE users (
     id uuid DEFAULT gen_random_uuid(),
 
     username VARCHAR(255) NOT NULL,
@@ -92,7 +79,7 @@ CREATE TABLE IF NOT EXISTS users (
     CONSTRAINT uq_users_email UNIQUE (email)
     );
 
-CREATE TABLE IF NOT EXISTS vouchers (
+CREATE TABLE vouchers (
 
     id uuid DEFAULT gen_random_uuid(),
     created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT NOW(),
@@ -122,5 +109,3 @@ CREATE TABLE IF NOT EXISTS vouchers (
 
     CONSTRAINT chk_dates CHECK (eviction_date >= arrival_date)
     );
-
-COMMIT;
@@ -0,0 +1,50 @@
+CREATE TYPE ledger_entry_type AS ENUM (
+    'OPENING',
+    'TOP_UP',
+    'ORDER',
+    'REFUND'
+    );
+
+-- Every claim of a voucher gets its own id, so the ORDER entry that pays for it and the REFUND that
+-- reverses it are keyed by (voucher, claim) and can never be written twice
+ALTER TABLE vouchers ADD COLUMN claim_id uuid;
+
+UPDATE vouchers SET claim_id = gen_random_uuid() WHERE user_id IS NOT NULL;
+
+CREATE SEQUENCE balance_ledger_seq INCREMENT BY 50;
+
+CREATE TABLE balance_ledger (
+    id BIGINT DEFAULT nextval('balance_ledger_seq'),
+
+    user_id uuid NOT NULL,
+    entry_type ledger_entry_type NOT NULL,
+    amount NUMERIC(10, 2) NOT NULL,
+    voucher_id uuid,
+    idempotency_key VARCHAR(128),
+    applied BOOLEAN NOT NULL DEFAULT FALSE,
+
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT pk_balance_ledger PRIMARY KEY (id),
+
+    CONSTRAINT ck_balance_ledger_keyed CHECK (entry_type NOT IN ('ORDER', 'REFUND') OR idempotency_key IS NOT NULL),
+
+    CONSTRAINT fk_balance_ledger_user FOREIGN KEY (user_id)
+    REFERENCES users (id) ON DELETE CASCADE
+    );
+
+CREATE UNIQUE INDEX uq_balance_ledger_idempotency_key
+    ON balance_ledger (user_id, idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+
+CREATE INDEX idx_balance_ledger_pending
+    ON balance_ledger (user_id, id)
+    WHERE NOT applied;
+
+CREATE INDEX idx_balance_ledger_user_history
+    ON balance_ledger (user_id, created_at DESC);
+
+INSERT INTO balance_ledger (user_id, entry_type, amount, applied)
+SELECT id, 'OPENING', balance, TRUE
+FROM users
+WHERE balance <> 0;
@@ -0,0 +1,13 @@
+CREATE UNLOGGED TABLE shared_cache (
+    cache_name VARCHAR(64) NOT NULL,
+    cache_key VARCHAR(512) NOT NULL,
+    value_type VARCHAR(255) NOT NULL,
+    value TEXT NOT NULL,
+
+    expires_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_shared_cache PRIMARY KEY (cache_name, cache_key)
+    );
+
+CREATE INDEX idx_shared_cache_expires_at
+    ON shared_cache (expires_at);
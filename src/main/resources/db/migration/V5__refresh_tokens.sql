@@ -0,0 +1,24 @@
+CREATE TABLE refresh_tokens (
+    token_hash CHAR(64) NOT NULL,
+
+    user_id uuid NOT NULL,
+    family_id uuid NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (token_hash),
+
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id)
+    REFERENCES users (id) ON DELETE CASCADE
+    );
+
+CREATE INDEX idx_refresh_tokens_user_id
+    ON refresh_tokens (user_id);
+
+CREATE INDEX idx_refresh_tokens_family_id
+    ON refresh_tokens (family_id);
+
+CREATE INDEX idx_refresh_tokens_expires_at
+    ON refresh_tokens (expires_at);
@@ -0,0 +1,14 @@
+CREATE UNLOGGED TABLE login_attempts (
+    limiter_name VARCHAR(32) NOT NULL,
+    attempt_key VARCHAR(512) NOT NULL,
+    bucket BIGINT NOT NULL,
+    previous_count BIGINT NOT NULL,
+    current_count BIGINT NOT NULL,
+
+    expires_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_login_attempts PRIMARY KEY (limiter_name, attempt_key)
+    );
+
+CREATE INDEX idx_login_attempts_expires_at
+    ON login_attempts (expires_at);
@@ -1,7 +1,3 @@
-BEGIN;
-
-TRUNCATE TABLE vouchers, users RESTART IDENTITY CASCADE;
-
 INSERT INTO users (id, username, first_name, last_name, password, user_role, phone_number, email, balance, user_status, auth_provider)
 VALUES
 -- admin123
@@ -14,7 +10,8 @@ VALUES
 ('33333333-3333-3333-3333-333333333333', 'traveler_bob', 'Bob', 'Traveler', '$2a$12$5ITpyTr6k2GnQPGPueEhTeekbsctqYRwdeRo/eXB6IQKRz25SzumK', 'USER', '+1122334455', 'bob@traveler.com', 5000.00, TRUE, 'LOCAL'),
 
 -- student123
-('44444444-4444-4444-4444-444444444444', 'poor_student', 'Denis', 'Radchenko', '$2a$12$ZV6JcqThPUCXALlU.lNBe.lK/RTzjT5EaxrWrIRkSeFA5mMK0sDF.', 'USER', NULL, 'student@uni.edu', 10.00, FALSE, 'LOCAL');
+('44444444-4444-4444-4444-444444444444', 'poor_student', 'Denis', 'Radchenko', '$2a$12$ZV6JcqThPUCXALlU.lNBe.lK/RTzjT5EaxrWrIRkSeFA5mMK0sDF.', 'USER', NULL, 'student@uni.edu', 10.00, FALSE, 'LOCAL')
+ON CONFLICT DO NOTHING;
 
 INSERT INTO vouchers (
     title,
@@ -27,6 +24,7 @@ INSERT INTO vouchers (
     arrival_date,
     eviction_date,
     user_id,
+    claim_id,
     is_hot
 )
 SELECT
@@ -48,6 +46,7 @@ SELECT
     gen.arrival + (floor(random() * 14) + 1 || ' days')::INTERVAL AS eviction_date,
 
     selected_user.val AS user_id,
+    CASE WHEN selected_user.val IS NOT NULL THEN gen_random_uuid() END AS claim_id,
     (random() < 0.25) AS is_hot
 
 FROM generate_series(1, 120) AS i
@@ -69,6 +68,11 @@ FROM generate_series(1, 120) AS i
     ) AS selected_user
          CROSS JOIN LATERAL (
     SELECT ('2026-01-01'::date + (random() * 350)::int + (i * 0)) AS arrival
-    ) AS gen;
+    ) AS gen
+WHERE NOT EXISTS (SELECT 1 FROM vouchers);
 
-COMMIT;
\ No newline at end of file
+INSERT INTO balance_ledger (user_id, entry_type, amount, applied)
+SELECT id, 'OPENING', balance, TRUE
+FROM users
+WHERE balance <> 0
+  AND NOT EXISTS (SELECT 1 FROM balance_ledger WHERE balance_ledger.user_id = users.id);
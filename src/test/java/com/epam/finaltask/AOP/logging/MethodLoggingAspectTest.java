@@ -0,0 +1,114 @@
+package com.epam.finaltask.AOP.logging;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodLoggingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TracingProperties tracingProperties;
+    private MethodLoggingAspect aspect;
+    private SampleService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracingProperties = new TracingProperties();
+        aspect = new MethodLoggingAspect(meterRegistry, tracingProperties);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Should record a latency timer per method")
+    void invocation_ShouldRecordLatency() {
+        service.find("a");
+        service.find("b");
+
+        Timer timer = meterRegistry.find(MethodLoggingAspect.LATENCY_METRIC)
+                .tags("class", "SampleService", "method", "find")
+                .timer();
+
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep separate series for beans sharing an inherited method")
+    void inheritedMethod_ShouldTagTargetClass() {
+        proxy(new FirstStorage()).load("a");
+        proxy(new SecondStorage()).load("b");
+        proxy(new SecondStorage()).load("c");
+
+        assertThat(meterRegistry.find(MethodLoggingAspect.LATENCY_METRIC)
+                .tags("class", "FirstStorage", "method", "load").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(MethodLoggingAspect.LATENCY_METRIC)
+                .tags("class", "SecondStorage", "method", "load").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should skip instrumentation entirely when disabled at runtime")
+    void disabled_ShouldNotRecord() {
+        tracingProperties.setEnabled(false);
+
+        service.find("a");
+
+        assertThat(meterRegistry.find(MethodLoggingAspect.LATENCY_METRIC).timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should redact sensitive parameters and summarize large arguments")
+    void describeArgs_ShouldRedactAndSummarize() {
+        UUID id = UUID.randomUUID();
+
+        String description = aspect.describeArgs(
+                new String[]{"rawPassword", "vouchers", "id", "refreshToken"},
+                new Object[]{"secret", new ArrayList<>(List.of(1, 2, 3)), id, "jwt"});
+
+        assertThat(description)
+                .isEqualTo("[rawPassword=***, vouchers=ArrayList[size=3], id=" + id + ", refreshToken=***]");
+    }
+
+    @Service
+    static class SampleService {
+
+        public String find(String name) {
+            return name;
+        }
+    }
+
+    @Service
+    abstract static class SampleStorage {
+
+        public String load(String key) {
+            return key;
+        }
+    }
+
+    static class FirstStorage extends SampleStorage {
+    }
+
+    static class SecondStorage extends SampleStorage {
+    }
+}
@@ -0,0 +1,91 @@
+package com.epam.finaltask.config;
+
+import com.epam.finaltask.model.CacheType;
+import com.epam.finaltask.repository.SharedCacheRepository;
+import com.epam.finaltask.service.NotificationBus;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import com.epam.finaltask.util.JwtProperties;
+import com.epam.finaltask.util.RefreshAheadProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CacheConfigTest {
+
+    private SimpleMeterRegistry registry;
+    private SimpleCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setExpiration(86_400_000);
+
+        CacheConfig cacheConfig = new CacheConfig(jwtProperties, new DistributedCacheProperties(),
+                mock(SharedCacheRepository.class), mock(NotificationBus.class), new ObjectMapper(),
+                new RefreshAheadProperties(), new SyncTaskExecutor());
+        cacheManager = (SimpleCacheManager) cacheConfig.cacheManager();
+        cacheManager.afterPropertiesSet();
+
+        registry = new SimpleMeterRegistry();
+        CacheMetricsRegistrar registrar = new CacheMetricsRegistrar(registry,
+                List.of(new CaffeineCacheMeterBinderProvider()));
+        cacheManager.getCacheNames().forEach(name ->
+                registrar.bindCacheToRegistry(cacheManager.getCache(name), Tag.of("cache.manager", "cacheManager")));
+        cacheConfig.cacheSizingMetrics().bindTo(registry);
+    }
+
+    @Test
+    @DisplayName("Should publish hit and miss counters for every cache type")
+    void everyCacheType_ShouldPublishHitsAndMisses() {
+        Cache voucherPages = cacheManager.getCache(CacheType.CacheNames.VOUCHER_PAGES);
+        voucherPages.put("page-0", "content");
+        voucherPages.get("page-0");
+        voucherPages.get("page-1");
+
+        for (CacheType type : CacheType.values()) {
+            assertThat(registry.find("cache.gets").tag("cache", type.getCacheName()).meters()).isNotEmpty();
+        }
+        assertThat(gets(CacheType.CacheNames.VOUCHER_PAGES, "hit")).isEqualTo(1);
+        assertThat(gets(CacheType.CacheNames.VOUCHER_PAGES, "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should publish configured capacity and ttl per cache")
+    void sizingGauges_ShouldReflectCacheType() {
+        assertThat(registry.get("cache.capacity").tag("cache", CacheType.CacheNames.USER_PROFILES).gauge().value())
+                .isEqualTo(CacheType.USER_PROFILES.getMaxSize());
+        assertThat(registry.get("cache.ttl").tag("cache", CacheType.CacheNames.REVOKED_TOKENS).gauge().value())
+                .isEqualTo(86_400);
+    }
+
+    @Test
+    @DisplayName("Should never evict revoked tokens to make room")
+    void revokedTokens_ShouldNotBeSizeBounded() {
+        Policy<Object, Object> policy = ((CaffeineCache) cacheManager.getCache(CacheType.CacheNames.REVOKED_TOKENS))
+                .getNativeCache().policy();
+
+        assertThat(policy.eviction()).isEmpty();
+        assertThat(policy.expireAfterWrite()).isPresent();
+        assertThat(registry.find("cache.capacity").tag("cache", CacheType.CacheNames.REVOKED_TOKENS).gauge()).isNull();
+    }
+
+    private double gets(String cacheName, String result) {
+        return registry.get("cache.gets").tag("cache", cacheName).tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,273 @@
+package com.epam.finaltask.filter;
+
+import com.epam.finaltask.model.CacheType;
+import com.epam.finaltask.model.IdempotentResponse;
+import com.epam.finaltask.service.TokenStorageService;
+import com.epam.finaltask.service.impl.AbstractTokenStorage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String ORDER_PATH = "/api/vouchers/3f1c2d4e-0000-4000-8000-000000000001/order";
+
+    private IdempotencyFilter filter;
+    private TokenStorageService<IdempotentResponse> storage;
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CacheType.CacheNames.IDEMPOTENT_RESPONSES,
+                Caffeine.newBuilder().build())));
+        cacheManager.afterPropertiesSet();
+
+        storage = new AbstractTokenStorage<>(cacheManager,
+                CacheType.CacheNames.IDEMPOTENT_RESPONSES, IdempotentResponse.class) {
+        };
+
+        filter = newFilter(storage);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response without invoking the chain again")
+    void retry_ShouldReplayStoredResponse() throws Exception {
+        MockHttpServletResponse first = perform(ORDER_PATH, "key-1", countingChain(201, "{\"id\":\"1\"}"));
+        MockHttpServletResponse retry = perform(ORDER_PATH, "key-1", countingChain(201, "{\"id\":\"2\"}"));
+
+        assertThat(invocations).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("{\"id\":\"1\"}");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a reused key when the request body differs")
+    void sameKey_DifferentBody_ShouldReturnUnprocessable() throws Exception {
+        perform(ORDER_PATH, "key-1", "{\"voucherIds\":[\"a\"]}", countingChain(201, "{}"));
+        MockHttpServletResponse retry = perform(ORDER_PATH, "key-1", "{\"voucherIds\":[\"b\"]}",
+                countingChain(201, "{}"));
+
+        assertThat(invocations).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(422);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should pass the request body through to the handler")
+    void body_ShouldStillBeReadableDownstream() throws Exception {
+        String[] received = new String[1];
+
+        perform(ORDER_PATH, "key-1", "{\"amount\":10}", (request, response) ->
+                received[0] = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        assertThat(received[0]).isEqualTo("{\"amount\":10}");
+    }
+
+    @Test
+    @DisplayName("Should scope keys to the authenticated user")
+    void sameKey_OtherUser_ShouldNotReplay() throws Exception {
+        perform(ORDER_PATH, "key-1", countingChain(200, "{}"));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        perform(ORDER_PATH, "key-1", countingChain(200, "{}"));
+
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should not store server errors so the client can retry")
+    void serverError_ShouldNotBeStored() throws Exception {
+        perform(ORDER_PATH, "key-1", countingChain(500, "{}"));
+        perform(ORDER_PATH, "key-1", countingChain(200, "{}"));
+
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should reject a concurrent duplicate while the first request is running")
+    void concurrentDuplicate_ShouldReturnConflict() throws Exception {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        perform(ORDER_PATH, "key-1", (request, response) -> {
+            invocations.incrementAndGet();
+            nested[0] = perform(ORDER_PATH, "key-1", countingChain(200, "{}"));
+        });
+
+        assertThat(invocations).hasValue(1);
+        assertThat(nested[0].getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate arriving at another instance while the first request is running")
+    void concurrentDuplicate_OtherInstance_ShouldReturnConflict() throws Exception {
+        IdempotencyFilter otherInstance = newFilter(storage);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        perform(ORDER_PATH, "key-1", (request, response) -> {
+            invocations.incrementAndGet();
+            filter = otherInstance;
+            nested[0] = perform(ORDER_PATH, "key-1", countingChain(200, "{}"));
+        });
+
+        assertThat(invocations).hasValue(1);
+        assertThat(nested[0].getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("Should release the claim when the handler fails so the client can retry")
+    void handlerException_ShouldReleaseClaim() throws Exception {
+        assertThatThrownBy(() -> perform(ORDER_PATH, "key-1", (request, response) -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        MockHttpServletResponse retry = perform(ORDER_PATH, "key-1", countingChain(201, "{}"));
+
+        assertThat(invocations).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("Should replay a response stored by the instance that won the claim")
+    @SuppressWarnings("unchecked")
+    void claimLost_ShouldReplayWinnersResponse() throws Exception {
+        MockHttpServletResponse first = perform(ORDER_PATH, "key-1", countingChain(201, "{\"id\":\"1\"}"));
+        IdempotentResponse stored = new IdempotentResponse(sha256(""), first.getStatus(), first.getContentType(),
+                first.getContentAsByteArray());
+        TokenStorageService<IdempotentResponse> sharedStorage = mock(TokenStorageService.class);
+        when(sharedStorage.storeIfAbsent(anyString(), any())).thenReturn(false);
+        when(sharedStorage.get(anyString())).thenReturn(stored);
+        filter = newFilter(sharedStorage);
+
+        MockHttpServletResponse retry = perform(ORDER_PATH, "key-1", countingChain(201, "{\"id\":\"2\"}"));
+
+        assertThat(invocations).hasValue(1);
+        assertThat(retry.getContentAsString()).isEqualTo("{\"id\":\"1\"}");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        verify(sharedStorage, never()).store(anyString(), any());
+        verify(sharedStorage, never()).revoke(anyString());
+    }
+
+    @Test
+    @DisplayName("Should support non-blocking reads of the cached body")
+    void body_ShouldBeReadableWithReadListener() throws Exception {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        perform(ORDER_PATH, "key-1", "{\"amount\":10}", (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        received.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+            });
+        });
+
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo("{\"amount\":10}");
+        assertThat(allRead[0]).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should ignore requests without a key or outside idempotent endpoints")
+    void requestsWithoutKeyOrOtherPath_ShouldPassThrough() throws Exception {
+        perform(ORDER_PATH, null, countingChain(200, "{}"));
+        perform(ORDER_PATH, null, countingChain(200, "{}"));
+        perform("/api/vouchers", "key-1", countingChain(200, "{}"));
+        perform("/api/vouchers", "key-1", countingChain(200, "{}"));
+
+        assertThat(invocations).hasValue(4);
+    }
+
+    private static IdempotencyFilter newFilter(TokenStorageService<IdempotentResponse> storage) {
+        return new IdempotencyFilter(storage, new StaticMessageSource(),
+                new FixedLocaleResolver(Locale.ENGLISH), new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    private MockHttpServletResponse perform(String path, String key, FilterChain chain)
+            throws IOException, ServletException {
+        return perform(path, key, "", chain);
+    }
+
+    private MockHttpServletResponse perform(String path, String key, String body, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        return response;
+    }
+
+    private static String sha256(String body) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private FilterChain countingChain(int status, String body) {
+        return (request, response) -> {
+            invocations.incrementAndGet();
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setStatus(status);
+            response.getWriter().write(body);
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.epam.finaltask.mapper;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaginationMapperTest {
+
+    @Test
+    @DisplayName("Slice: Last page should report the exact total")
+    void lastPage_ShouldCountSeenItems() {
+        VoucherPaginatedResponse response = PaginationMapper.toVoucherResponse(
+                new SliceImpl<>(List.of(new VoucherDTO(), new VoucherDTO()), PageRequest.of(2, 10), false), null, 40L);
+
+        assertThat(response.getTotalItems()).isEqualTo(22);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+        assertThat(response.isTotalApproximate()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Slice: Page with more data should never report fewer items than seen")
+    void pageWithNext_ShouldUseCountOrSeenItems() {
+        VoucherPaginatedResponse response = PaginationMapper.toVoucherResponse(
+                new SliceImpl<>(List.of(new VoucherDTO()), PageRequest.of(0, 1), true), null, null);
+
+        assertThat(response.getTotalItems()).isEqualTo(2);
+        assertThat(response.isTotalApproximate()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Slice: Empty out-of-range page should report the counted total")
+    void emptyOutOfRangePage_ShouldUseTotal() {
+        VoucherPaginatedResponse response = PaginationMapper.toVoucherResponse(
+                new SliceImpl<>(List.of(), PageRequest.of(9, 10), false), null, 25L);
+
+        assertThat(response.getTotalItems()).isEqualTo(25);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+        assertThat(response.isTotalApproximate()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Slice: Empty out-of-range page without a count should fall back to the offset")
+    void emptyOutOfRangePage_WithoutTotal_ShouldUseOffset() {
+        VoucherPaginatedResponse response = PaginationMapper.toVoucherResponse(
+                new SliceImpl<>(List.of(), PageRequest.of(9, 10), false), null, null);
+
+        assertThat(response.getTotalItems()).isEqualTo(90);
+        assertThat(response.isTotalApproximate()).isTrue();
+    }
+}
@@ -0,0 +1,273 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.dto.AdminVoucherFilterRequest;
+import com.epam.finaltask.dto.PersonalVoucherFilterRequest;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.repository.specification.VoucherCursor;
+import com.epam.finaltask.repository.specification.VoucherSpecifications;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VoucherIndexPlanTest {
+
+    private static final UUID USER_ID = UUID.fromString("33333333-3333-3333-3333-333333333333");
+
+    private final List<CapturedQuery> captured = new ArrayList<>();
+
+    private EmbeddedPostgres postgres;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+
+    @BeforeAll
+    void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, password, user_role, auth_provider) "
+                    + "VALUES ('" + USER_ID + "', 'bob', 'secret', 'USER', 'LOCAL')");
+            statement.execute("""
+                    INSERT INTO vouchers (id, title, price, voucher_tour_type, voucher_status_type, user_id, is_hot, created_at, updated_at)
+                    SELECT md5('voucher-' || i)::uuid,
+                           'Trip #' || i,
+                           (i %% 7000 + 100)::NUMERIC(10, 2),
+                           (ARRAY['HEALTH', 'SAFARI', 'WINE', 'ECO'])[i %% 4 + 1]::tour_type,
+                           (ARRAY['CREATED', 'REGISTERED', 'PAID', 'CANCELED'])[i %% 4 + 1]::status_type,
+                           CASE WHEN i %% 50 = 0 THEN '%s'::uuid END,
+                           i %% 5 = 0,
+                           NOW() - (i || ' minutes')::INTERVAL,
+                           NOW() - (i || ' seconds')::INTERVAL
+                    FROM generate_series(1, 100000) AS i
+                    """.formatted(USER_ID));
+            statement.execute("ANALYZE vouchers");
+        }
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(capturing(postgres.getPostgresDatabase()));
+        factoryBean.setPackagesToScan("com.epam.finaltask.model");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+    }
+
+    @AfterAll
+    void tearDown() throws IOException {
+        factoryBean.destroy();
+        postgres.close();
+    }
+
+    @BeforeEach
+    void clearCaptured() {
+        captured.clear();
+    }
+
+    static Stream<Arguments> filterPaths() {
+        Voucher lastSeen = Voucher.builder()
+                .id(UUID.randomUUID())
+                .title("Trip #1440")
+                .isHot(true)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .build();
+
+        return Stream.of(
+                Arguments.of("public default order", true, page(new VoucherFilerRequest())),
+                Arguments.of("public keyset page", true, keyset(new VoucherFilerRequest(), lastSeen)),
+                Arguments.of("public price ascending", true, keyset(sorted("price", "asc"), null)),
+                Arguments.of("public price descending", true, keyset(sorted("price", "desc"), null)),
+                Arguments.of("public title", true, keyset(sorted("title", "asc"), null)),
+                Arguments.of("public price range", false, page(priceRange(new VoucherFilerRequest()))),
+                Arguments.of("admin default order", true, page(new AdminVoucherFilterRequest())),
+                Arguments.of("admin status filter", false, page(adminStatuses())),
+                Arguments.of("admin ranked title search", false, page(adminTitle("trip #123"))),
+                Arguments.of("personal order", true, page(personal()))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filterPaths")
+    @DisplayName("Every voucher filter path should be served by an index")
+    void filterPath_ShouldAvoidSequentialScan(String name, boolean ordered, Consumer<VoucherRepositoryCustomImpl> query)
+            throws Exception {
+        EntityManager entityManager = factoryBean.getObject().createEntityManager();
+        try {
+            query.accept(new VoucherRepositoryCustomImpl(entityManager));
+        } finally {
+            entityManager.close();
+        }
+
+        assertThat(captured).as(name).isNotEmpty();
+        String plan = explain(captured.get(0));
+
+        assertThat(plan).as(name).doesNotContain("Seq Scan on vouchers");
+        if (name.startsWith("public")) {
+            assertThat(plan).as(name).contains("idx_vouchers_created_");
+        }
+        if (ordered) {
+            assertThat(plan).as(name).doesNotContain("Sort Key");
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"4a2b", "4a2b1c3d-9e8f-4a2b-8c1d-0123456789ab"})
+    @DisplayName("Id search should combine the primary key range with the trigram index")
+    void idSearch_ShouldBeServedByPrimaryKeyAndTrigramIndex(String term) throws Exception {
+        EntityManager entityManager = factoryBean.getObject().createEntityManager();
+        try {
+            page(adminVoucherId(term)).accept(new VoucherRepositoryCustomImpl(entityManager));
+        } finally {
+            entityManager.close();
+        }
+
+        String plan = explain(captured.get(0));
+
+        assertThat(plan).contains("BitmapOr", "pk_vouchers", "idx_vouchers_id_trgm");
+    }
+
+    private static Consumer<VoucherRepositoryCustomImpl> page(VoucherFilerRequest filter) {
+        return repository -> repository.findViewSlice(VoucherSpecifications.withFilters(filter), PageRequest.of(0, 10));
+    }
+
+    private static Consumer<VoucherRepositoryCustomImpl> keyset(VoucherFilerRequest filter, Voucher lastSeen) {
+        VoucherCursor cursor = lastSeen == null ? null : VoucherCursor.of(filter, lastSeen);
+        return repository -> repository.findWithLimit(VoucherSpecifications.withCursor(filter, cursor), 11);
+    }
+
+    private static VoucherFilerRequest sorted(String field, String direction) {
+        VoucherFilerRequest filter = new VoucherFilerRequest();
+        filter.setSortField(field);
+        filter.setSortDirection(direction);
+        return filter;
+    }
+
+    private static <T extends VoucherFilerRequest> T priceRange(T filter) {
+        filter.setMinPrice(BigDecimal.valueOf(500));
+        filter.setMaxPrice(BigDecimal.valueOf(600));
+        return filter;
+    }
+
+    private static AdminVoucherFilterRequest adminStatuses() {
+        AdminVoucherFilterRequest filter = priceRange(new AdminVoucherFilterRequest());
+        filter.setStatuses(List.of(VoucherStatus.PAID, VoucherStatus.CANCELED));
+        return filter;
+    }
+
+    private static AdminVoucherFilterRequest adminTitle(String title) {
+        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
+        filter.setTitle(title);
+        return filter;
+    }
+
+    private static AdminVoucherFilterRequest adminVoucherId(String voucherId) {
+        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
+        filter.setVoucherId(voucherId);
+        return filter;
+    }
+
+    private static PersonalVoucherFilterRequest personal() {
+        PersonalVoucherFilterRequest filter = new PersonalVoucherFilterRequest();
+        filter.setUserId(USER_ID);
+        return filter;
+    }
+
+    private String explain(CapturedQuery query) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (Binding binding : query.bindings()) {
+                binding.method().invoke(statement, binding.args());
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private DataSource capturing(DataSource dataSource) {
+        return intercept(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection connection ? capturing(connection) : result);
+    }
+
+    private Connection capturing(Connection connection) {
+        return intercept(Connection.class, connection, (method, args, result) ->
+                "prepareStatement".equals(method.getName()) ? capturing((PreparedStatement) result, (String) args[0]) : result);
+    }
+
+    private PreparedStatement capturing(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return intercept(PreparedStatement.class, statement, (method, args, result) -> {
+            if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args));
+            } else if ("executeQuery".equals(method.getName())) {
+                captured.add(new CapturedQuery(sql, List.copyOf(bindings)));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T intercept(Class<T> type, T target, Interceptor interceptor) {
+        return (T) Proxy.newProxyInstance(VoucherIndexPlanTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    try {
+                        return interceptor.afterInvocation(method, args, method.invoke(target, args));
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private interface Interceptor {
+        Object afterInvocation(Method method, Object[] args, Object result);
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record CapturedQuery(String sql, List<Binding> bindings) {
+    }
+}
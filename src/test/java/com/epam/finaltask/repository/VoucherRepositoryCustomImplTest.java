@@ -0,0 +1,149 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.dto.AdminVoucherFilterRequest;
+import com.epam.finaltask.dto.PersonalVoucherFilterRequest;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.dto.VoucherView;
+import com.epam.finaltask.repository.specification.VoucherSpecifications;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VoucherRepositoryCustomImplTest {
+
+    private static final UUID USER_ID = UUID.fromString("33333333-3333-3333-3333-333333333333");
+
+    private EmbeddedPostgres postgres;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManager entityManager;
+    private Statistics statistics;
+    private VoucherRepositoryCustomImpl repository;
+
+    @BeforeAll
+    void startDatabase() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, username, password, user_role, auth_provider) "
+                    + "VALUES ('" + USER_ID + "', 'bob', 'secret', 'USER', 'LOCAL')");
+            statement.execute("""
+                    INSERT INTO vouchers (title, price, voucher_status_type, user_id, is_hot)
+                    SELECT 'Trip #' || i,
+                           100 + i,
+                           (CASE WHEN i %% 2 = 0 THEN 'REGISTERED' ELSE 'CREATED' END)::status_type,
+                           CASE WHEN i %% 2 = 0 THEN '%s'::uuid END,
+                           i %% 5 = 0
+                    FROM generate_series(1, 50) AS i
+                    """.formatted(USER_ID));
+        }
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(postgres.getPostgresDatabase());
+        factoryBean.setPackagesToScan("com.epam.finaltask.model");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.generate_statistics", "true"));
+        factoryBean.afterPropertiesSet();
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        factoryBean.destroy();
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory factory = factoryBean.getObject();
+        statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        entityManager = factory.createEntityManager();
+        repository = new VoucherRepositoryCustomImpl(entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("findViewSlice: Should load a public page in a single statement")
+    void findViewSlice_Public_ShouldUseOneStatement() {
+        Slice<VoucherView> slice = repository.findViewSlice(
+                VoucherSpecifications.withFilters(new VoucherFilerRequest()), PageRequest.of(0, 10));
+
+        assertThat(slice.getContent()).hasSize(10);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findViewSlice: Should read the owner id from the foreign key without loading users")
+    void findViewSlice_Personal_ShouldNotLoadUsers() {
+        PersonalVoucherFilterRequest filter = new PersonalVoucherFilterRequest();
+        filter.setUserId(USER_ID);
+
+        Slice<VoucherView> slice = repository.findViewSlice(
+                VoucherSpecifications.withFilters(filter), PageRequest.of(1, 10));
+
+        assertThat(slice.getContent()).hasSize(10)
+                .allSatisfy(view -> assertThat(view.getUserId()).isEqualTo(USER_ID));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findViewSlice: Admin search should also stay at one statement per page")
+    void findViewSlice_Admin_ShouldUseOneStatement() {
+        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
+        filter.setTitle("trip #1");
+
+        repository.findViewSlice(VoucherSpecifications.withFilters(filter), PageRequest.of(0, 10));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findViewById: Should load a single voucher in one statement")
+    void findViewById_ShouldUseOneStatement() {
+        UUID id = repository.findViewSlice(VoucherSpecifications.withFilters(new VoucherFilerRequest()),
+                PageRequest.of(0, 1)).getContent().get(0).getId();
+        statistics.clear();
+
+        assertThat(repository.findViewById(id)).get()
+                .extracting(VoucherView::getId)
+                .isEqualTo(id);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
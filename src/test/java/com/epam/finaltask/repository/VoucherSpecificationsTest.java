@@ -0,0 +1,149 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.dto.AdminVoucherFilterRequest;
+import com.epam.finaltask.dto.VoucherView;
+import com.epam.finaltask.repository.specification.VoucherSpecifications;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VoucherSpecificationsTest {
+
+    private static final String PREFIX_LOW = "4a2b0000-0000-0000-0000-000000000000";
+    private static final String PREFIX_HIGH = "4a2bffff-ffff-ffff-ffff-ffffffffffff";
+    private static final String NEXT_PREFIX = "4a2c0000-0000-0000-0000-000000000000";
+    private static final String MIDDLE_MATCH = "11111111-4a2b-4000-8000-000000000000";
+
+    private EmbeddedPostgres postgres;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManager entityManager;
+    private VoucherRepositoryCustomImpl repository;
+
+    @BeforeAll
+    void startDatabase() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO vouchers (id, title, price, voucher_status_type, is_hot) VALUES
+                    ('%s', 'Comparis', 100, 'CREATED', FALSE),
+                    ('%s', 'Weekend in Paris', 100, 'CREATED', FALSE),
+                    ('%s', 'Paris Grand Weekend Tour', 100, 'CREATED', FALSE),
+                    ('%s', 'Paris Tour', 100, 'CREATED', FALSE),
+                    (gen_random_uuid(), 'Paris', 100, 'CREATED', FALSE),
+                    (gen_random_uuid(), 'Rome', 100, 'CREATED', FALSE),
+                    (gen_random_uuid(), '100%% Fun', 100, 'CREATED', FALSE),
+                    (gen_random_uuid(), '1000 Fun', 100, 'CREATED', FALSE),
+                    (gen_random_uuid(), 'a_b trip', 100, 'CREATED', FALSE),
+                    (gen_random_uuid(), 'axb trip', 100, 'CREATED', FALSE)
+                    """.formatted(PREFIX_LOW, PREFIX_HIGH, NEXT_PREFIX, MIDDLE_MATCH));
+        }
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(postgres.getPostgresDatabase());
+        factoryBean.setPackagesToScan("com.epam.finaltask.model");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        factoryBean.destroy();
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager = factoryBean.getObject().createEntityManager();
+        repository = new VoucherRepositoryCustomImpl(entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("Title search: Should rank exact, prefix, word prefix, then other matches")
+    void titleSearch_ShouldRankByMatchTypeThenSimilarity() {
+        assertThat(titles(byTitle("Paris"))).containsExactly(
+                "Paris",
+                "Paris Tour",
+                "Paris Grand Weekend Tour",
+                "Weekend in Paris",
+                "Comparis");
+    }
+
+    @Test
+    @DisplayName("Title search: Should match LIKE wildcards in the input literally")
+    void titleSearch_Wildcards_ShouldBeEscaped() {
+        assertThat(titles(byTitle("100%"))).containsExactly("100% Fun");
+        assertThat(titles(byTitle("a_b"))).containsExactly("a_b trip");
+    }
+
+    @Test
+    @DisplayName("Id search: Should match the start of an id as an inclusive UUID range, plus inner fragments")
+    void idSearch_Prefix_ShouldIncludeBothBoundsAndFragments() {
+        assertThat(ids(byVoucherId("4a2b"))).containsExactlyInAnyOrder(PREFIX_LOW, PREFIX_HIGH, MIDDLE_MATCH);
+        assertThat(ids(byVoucherId("4A2BFFFF-F"))).containsExactly(PREFIX_HIGH);
+        assertThat(ids(byVoucherId("4a2c"))).containsExactly(NEXT_PREFIX);
+    }
+
+    @Test
+    @DisplayName("Id search: Should find a full id and fragments that cannot start an id")
+    void idSearch_FullIdOrFragment_ShouldMatch() {
+        assertThat(ids(byVoucherId(MIDDLE_MATCH))).containsExactly(MIDDLE_MATCH);
+        assertThat(ids(byVoucherId("-4a2b-4000"))).containsExactly(MIDDLE_MATCH);
+        assertThat(ids(byVoucherId("not-an-id"))).isEmpty();
+    }
+
+    private AdminVoucherFilterRequest byTitle(String title) {
+        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
+        filter.setTitle(title);
+        return filter;
+    }
+
+    private AdminVoucherFilterRequest byVoucherId(String voucherId) {
+        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
+        filter.setVoucherId(voucherId);
+        return filter;
+    }
+
+    private List<String> titles(AdminVoucherFilterRequest filter) {
+        return search(filter).stream().map(VoucherView::getTitle).toList();
+    }
+
+    private List<String> ids(AdminVoucherFilterRequest filter) {
+        return search(filter).stream().map(view -> view.getId().toString()).toList();
+    }
+
+    private List<VoucherView> search(AdminVoucherFilterRequest filter) {
+        return repository.findViewSlice(VoucherSpecifications.withFilters(filter), PageRequest.of(0, 20)).getContent();
+    }
+}
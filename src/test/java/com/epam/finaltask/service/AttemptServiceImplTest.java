@@ -1,53 +1,100 @@
 package com.epam.finaltask.service;
 
 import com.epam.finaltask.service.impl.AttemptServiceImpl;
+import com.epam.finaltask.util.LoginAttemptProperties;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
 class AttemptServiceImplTest {
 
-    @Mock
-    private TokenStorageService<Integer> failedAttemptStorage;
-    @InjectMocks
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    private final AtomicLong now = new AtomicLong();
     private AttemptServiceImpl attemptService;
 
+    @BeforeEach
+    void setUp() {
+        LoginAttemptProperties properties = new LoginAttemptProperties();
+        properties.setMaxPerIp(10);
+        properties.setMaxPerUsername(3);
+        properties.setWindow(WINDOW);
+        attemptService = new AttemptServiceImpl(properties, now::get);
+    }
+
+    @Test
+    void isBlocked_False_NoAttempts() {
+        assertThat(attemptService.isBlocked("ip", "bob")).isFalse();
+        assertThat(attemptService.isBlocked(null, null)).isFalse();
+    }
+
+    @Test
+    void isBlocked_True_UsernameLimitReached() {
+        track("ip", "bob", 3);
+
+        assertThat(attemptService.isBlocked("ip", "bob")).isTrue();
+        assertThat(attemptService.isBlocked("ip", "alice")).isFalse();
+        assertThat(attemptService.isBlocked("ip")).isFalse();
+    }
+
     @Test
-    void track_Null_Init() {
-        when(failedAttemptStorage.get("login:fail:ip")).thenReturn(null);
-        attemptService.track("ip");
-        verify(failedAttemptStorage).store("login:fail:ip", 1);
+    void isBlocked_False_OwnerOnOtherIpNotLockedOut() {
+        track("attacker-ip", "bob", 3);
+
+        assertThat(attemptService.isBlocked("owner-ip", "bob")).isFalse();
     }
 
     @Test
-    void track_Increment() {
-        when(failedAttemptStorage.get("login:fail:ip")).thenReturn(2);
-        attemptService.track("ip");
-        verify(failedAttemptStorage).store("login:fail:ip", 3);
+    void isBlocked_True_UsernameIsCaseInsensitive() {
+        track("ip", " Bob", 3);
+
+        assertThat(attemptService.isBlocked("ip", "bob")).isTrue();
     }
 
     @Test
-    void isBlocked_True() {
-        when(failedAttemptStorage.get("login:fail:ip")).thenReturn(5);
+    void isBlocked_True_IpLimitReached() {
+        for (int i = 0; i < 10; i++) {
+            attemptService.track("ip", "user-" + i);
+        }
+
         assertThat(attemptService.isBlocked("ip")).isTrue();
+        assertThat(attemptService.isBlocked("ip", "fresh-user")).isTrue();
     }
 
     @Test
-    void isBlocked_False_Null() {
-        when(failedAttemptStorage.get("login:fail:ip")).thenReturn(null);
-        assertThat(attemptService.isBlocked("ip")).isFalse();
+    void isBlocked_SlidingWindow_PreviousAttemptsDecay() {
+        track("ip", "bob", 3);
+
+        now.addAndGet(WINDOW.toNanos() + WINDOW.toNanos() / 2);
+        assertThat(attemptService.isBlocked("ip", "bob")).isFalse();
+
+        attemptService.track("ip", "bob");
+        attemptService.track("ip", "bob");
+        assertThat(attemptService.isBlocked("ip", "bob")).isTrue();
+
+        now.addAndGet(WINDOW.toNanos() * 2);
+        assertThat(attemptService.isBlocked("ip", "bob")).isFalse();
     }
 
     @Test
-    void clearBlocked() {
-        attemptService.clearBlocked("ip");
-        verify(failedAttemptStorage).revoke("ip");
+    void clearBlocked_ResetsUsername() {
+        track("ip", "bob", 3);
+
+        track("other-ip", "bob", 3);
+
+        attemptService.clearBlocked("ip", "BOB");
+
+        assertThat(attemptService.isBlocked("ip", "bob")).isFalse();
+        assertThat(attemptService.isBlocked("other-ip", "bob")).isTrue();
+    }
+
+    private void track(String ip, String username, int times) {
+        for (int i = 0; i < times; i++) {
+            attemptService.track(ip, username);
+        }
     }
 }
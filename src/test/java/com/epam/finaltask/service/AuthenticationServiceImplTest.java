@@ -41,7 +41,7 @@ class AuthenticationServiceImplTest {
     @Mock
     private UserMapper userMapper;
     @Mock
-    private TokenStorageService<String> jwtTokenStorageService;
+    private RefreshTokenStorageService jwtTokenStorageService;
     @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
@@ -57,12 +57,18 @@ class AuthenticationServiceImplTest {
 
         when(userService.getUserByUsername("u")).thenReturn(new UserDTO());
         when(userMapper.toUser(any())).thenReturn(user);
-        when(jwtUtil.generateAccessToken(user)).thenReturn("a");
-        when(jwtUtil.generateRefreshToken(user)).thenReturn("r");
+        when(jwtUtil.generateAccessToken(eq(user), anyString())).thenReturn("a");
+        when(jwtUtil.generateRefreshToken(eq(user), anyString())).thenReturn("r");
 
         AuthResponse res = authService.login(new LoginRequest("u", "p"));
         assertThat(res.getAccessToken()).isEqualTo("a");
         verify(jwtTokenStorageService).store(user.getId().toString(), "r");
+
+        ArgumentCaptor<String> accessSession = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> refreshSession = ArgumentCaptor.forClass(String.class);
+        verify(jwtUtil).generateAccessToken(eq(user), accessSession.capture());
+        verify(jwtUtil).generateRefreshToken(eq(user), refreshSession.capture());
+        assertThat(accessSession.getValue()).isEqualTo(refreshSession.getValue());
     }
 
     @Test
@@ -74,8 +80,8 @@ class AuthenticationServiceImplTest {
         when(userMapper.toUserDTO(any())).thenReturn(new UserDTO());
         when(userService.saveUser(any(), eq("enc"))).thenReturn(new UserDTO());
         when(userMapper.toUser(any())).thenReturn(user);
-        when(jwtUtil.generateAccessToken(user)).thenReturn("a");
-        when(jwtUtil.generateRefreshToken(user)).thenReturn("r");
+        when(jwtUtil.generateAccessToken(eq(user), anyString())).thenReturn("a");
+        when(jwtUtil.generateRefreshToken(eq(user), anyString())).thenReturn("r");
 
         authService.register(new RegisterRequest("u", "p", "f", "l", "ph", "e"));
         verify(userService).saveUser(any(), any());
@@ -85,26 +91,67 @@ class AuthenticationServiceImplTest {
     @DisplayName("Refresh: Success")
     void refresh() {
         UUID uid = UUID.randomUUID();
-        User user = User.builder().id(uid).build();
+        User user = User.builder().id(uid).active(true).build();
+        String token = "tok";
+
+        when(jwtTokenStorageService.get(token)).thenReturn(uid.toString());
+        when(jwtUtil.isTokenExpired(token)).thenReturn(false);
+        when(jwtUtil.extractClaim(eq(token), any())).thenReturn(uid.toString());
+        when(userService.getUserById(uid)).thenReturn(new UserDTO());
+        when(userMapper.toUser(any())).thenReturn(user);
+        when(jwtUtil.extractSessionId(token)).thenReturn("session-1");
+        when(jwtUtil.generateAccessToken(user, "session-1")).thenReturn("newA");
+        when(jwtUtil.generateRefreshToken(user, "session-1")).thenReturn("newR");
+        when(jwtTokenStorageService.rotate(token, "newR")).thenReturn(true);
+
+        AuthResponse response = authService.refresh(new RefreshTokenRequest(token));
+
+        assertThat(response.getRefreshToken()).isEqualTo("newR");
+        verify(jwtTokenStorageService, never()).store(any(), any());
+    }
+
+    @Test
+    @DisplayName("Refresh: Reused token should be rejected")
+    void refresh_Reused() {
+        UUID uid = UUID.randomUUID();
+        User user = User.builder().id(uid).active(true).build();
         String token = "tok";
 
-        when(jwtUtil.extractUsername(token)).thenReturn("u");
-        when(jwtTokenStorageService.get("u")).thenReturn(token);
+        when(jwtTokenStorageService.get(token)).thenReturn(uid.toString());
         when(jwtUtil.isTokenExpired(token)).thenReturn(false);
         when(jwtUtil.extractClaim(eq(token), any())).thenReturn(uid.toString());
         when(userService.getUserById(uid)).thenReturn(new UserDTO());
         when(userMapper.toUser(any())).thenReturn(user);
-        when(jwtUtil.generateAccessToken(user)).thenReturn("newA");
+        when(jwtUtil.generateRefreshToken(user, null)).thenReturn("newR");
+        when(jwtTokenStorageService.rotate(token, "newR")).thenReturn(false);
 
-        authService.refresh(new RefreshTokenRequest(token));
-        verify(jwtTokenStorageService).store(any(), any());
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest(token)))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Refresh: Blocked user should be rejected and lose all refresh tokens")
+    void refresh_InactiveUser() {
+        UUID uid = UUID.randomUUID();
+        User user = User.builder().id(uid).active(false).build();
+        String token = "tok";
+
+        when(jwtTokenStorageService.get(token)).thenReturn(uid.toString());
+        when(jwtUtil.isTokenExpired(token)).thenReturn(false);
+        when(jwtUtil.extractClaim(eq(token), any())).thenReturn(uid.toString());
+        when(userService.getUserById(uid)).thenReturn(new UserDTO());
+        when(userMapper.toUser(any())).thenReturn(user);
+
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest(token)))
+                .isInstanceOf(InvalidTokenException.class);
+        verify(jwtTokenStorageService).revokeAllForUser(uid.toString());
+        verify(jwtTokenStorageService, never()).rotate(any(), any());
     }
 
     @Test
     @DisplayName("Refresh: Invalid Token")
     void refresh_Invalid() {
-        when(jwtUtil.extractUsername("t")).thenReturn("u");
-        when(jwtTokenStorageService.get("u")).thenReturn(null);
+        when(jwtTokenStorageService.get("t")).thenReturn(null);
         assertThatThrownBy(() -> authService.refresh(new RefreshTokenRequest("t"))).isInstanceOf(InvalidTokenException.class);
     }
 
@@ -118,7 +165,7 @@ class AuthenticationServiceImplTest {
 
         authService.logout(new LogoutRequest("t"));
 
-        verify(jwtTokenStorageService).revoke("id");
+        verify(jwtTokenStorageService).revoke("t");
     }
 
     @Test
@@ -134,7 +181,7 @@ class AuthenticationServiceImplTest {
         authService.resetPassword(new ResetPasswordRequest("t", "np"));
 
         verify(userService).changePassword(any(), eq("enc"));
-        verify(jwtTokenStorageService).revoke("uid");
+        verify(jwtTokenStorageService).revokeAllForUser("uid");
     }
 
     @Test
@@ -142,8 +189,7 @@ class AuthenticationServiceImplTest {
     void refresh_Expired() {
         // Arrange
         String token = "expired-token";
-        when(jwtUtil.extractUsername(token)).thenReturn("user");
-        when(jwtTokenStorageService.get("user")).thenReturn(token);
+        when(jwtTokenStorageService.get(token)).thenReturn("user-id");
         when(jwtUtil.isTokenExpired(token)).thenReturn(true);
 
         // Act & Assert
@@ -183,8 +229,8 @@ class AuthenticationServiceImplTest {
         when(userService.saveUser(any(), eq("encoded_pass"))).thenReturn(userDTO);
         when(userMapper.toUser(userDTO)).thenReturn(savedUser);
 
-        when(jwtUtil.generateAccessToken(any())).thenReturn("at");
-        when(jwtUtil.generateRefreshToken(any())).thenReturn("rt");
+        when(jwtUtil.generateAccessToken(any(), anyString())).thenReturn("at");
+        when(jwtUtil.generateRefreshToken(any(), anyString())).thenReturn("rt");
 
         // Act
         authService.register(req);
@@ -204,10 +250,9 @@ class AuthenticationServiceImplTest {
         // Arrange
         String token = "valid-token";
         UUID uid = UUID.randomUUID();
-        User user = User.builder().id(uid).build();
+        User user = User.builder().id(uid).active(true).build();
 
-        when(jwtUtil.extractUsername(token)).thenReturn("user");
-        when(jwtTokenStorageService.get("user")).thenReturn(token);
+        when(jwtTokenStorageService.get(token)).thenReturn("user-id");
         when(jwtUtil.isTokenExpired(token)).thenReturn(false);
 
         when(jwtUtil.extractClaim(eq(token), any())).thenAnswer(invocation -> {
@@ -219,7 +264,8 @@ class AuthenticationServiceImplTest {
 
         when(userService.getUserById(uid)).thenReturn(new UserDTO());
         when(userMapper.toUser(any())).thenReturn(user);
-        when(jwtUtil.generateAccessToken(user)).thenReturn("newA");
+        when(jwtUtil.generateAccessToken(user, null)).thenReturn("newA");
+        when(jwtTokenStorageService.rotate(eq(token), any())).thenReturn(true);
 
         // Act
         AuthResponse response = authService.refresh(new RefreshTokenRequest(token));
@@ -235,8 +281,7 @@ class AuthenticationServiceImplTest {
         String token = "valid-token";
         UUID uid = UUID.randomUUID();
 
-        when(jwtUtil.extractUsername(token)).thenReturn("user");
-        when(jwtTokenStorageService.get("user")).thenReturn(token);
+        when(jwtTokenStorageService.get(token)).thenReturn("user-id");
         when(jwtUtil.isTokenExpired(token)).thenReturn(false);
         when(jwtUtil.extractClaim(eq(token), any())).thenReturn(uid.toString());
 
@@ -255,8 +300,7 @@ class AuthenticationServiceImplTest {
         String token = "valid-token";
         String invalidUuid = "not-a-uuid-string";
 
-        when(jwtUtil.extractUsername(token)).thenReturn("user");
-        when(jwtTokenStorageService.get("user")).thenReturn(token);
+        when(jwtTokenStorageService.get(token)).thenReturn("user-id");
         when(jwtUtil.isTokenExpired(token)).thenReturn(false);
         when(jwtUtil.extractClaim(eq(token), any())).thenReturn(invalidUuid);
 
@@ -0,0 +1,102 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.exception.MailQueueFullException;
+import com.epam.finaltask.service.impl.MailQueueServiceImpl;
+import com.epam.finaltask.service.impl.MailServiceImpl;
+import com.epam.finaltask.util.MailQueueProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MailQueueServiceImplTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailQueueProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MailQueueProperties();
+        properties.setRetryBackoff(Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("enqueueTextMail: Should return immediately and deliver on the next dispatch")
+    void enqueue_ThenDispatch_ShouldDeliverToSmtp() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        MailQueueService mailQueueService = new MailQueueServiceImpl(new MailServiceImpl(mailSender), properties,
+                new StandardEnvironment());
+
+        mailQueueService.enqueueTextMail("first@example.com", "token-1", "Reset link 1");
+        mailQueueService.enqueueTextMail("second@example.com", "token-2", "Reset link 2");
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(mailQueueService.dispatch()).isEqualTo(2);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("token-1");
+    }
+
+    @Test
+    @DisplayName("dispatch: Should retry failed messages on a later dispatch")
+    void dispatch_SmtpFailure_ShouldRetry() {
+        MailService mailService = mock(MailService.class);
+        doThrow(new MailSendException("Connection refused"))
+                .doNothing()
+                .when(mailService).sendTextMails(any(SimpleMailMessage[].class));
+        MailQueueService mailQueueService = new MailQueueServiceImpl(mailService, properties, new StandardEnvironment());
+
+        mailQueueService.enqueueTextMail("to@example.com", "token", "body");
+
+        assertThat(mailQueueService.dispatch()).isZero();
+        assertThat(mailQueueService.dispatch()).isEqualTo(1);
+        verify(mailService, times(2)).sendTextMails(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    @DisplayName("dispatch: Should drop a message after max attempts")
+    void dispatch_PersistentFailure_ShouldDropAfterMaxAttempts() {
+        properties.setMaxAttempts(2);
+        MailService mailService = mock(MailService.class);
+        doThrow(new MailSendException("Connection refused")).when(mailService).sendTextMails(any(SimpleMailMessage[].class));
+        MailQueueService mailQueueService = new MailQueueServiceImpl(mailService, properties, new StandardEnvironment());
+
+        mailQueueService.enqueueTextMail("to@example.com", "token", "body");
+        mailQueueService.dispatch();
+        mailQueueService.dispatch();
+        mailQueueService.dispatch();
+
+        verify(mailService, times(2)).sendTextMails(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    @DisplayName("enqueueTextMail: Should reject mail when the queue is full")
+    void enqueue_QueueFull_ShouldThrow() {
+        properties.setCapacity(1);
+        MailQueueService mailQueueService = new MailQueueServiceImpl(mock(MailService.class), properties, new StandardEnvironment());
+
+        mailQueueService.enqueueTextMail("first@example.com", "token", "body");
+
+        assertThatThrownBy(() -> mailQueueService.enqueueTextMail("second@example.com", "token", "body"))
+                .isInstanceOf(MailQueueFullException.class);
+    }
+}
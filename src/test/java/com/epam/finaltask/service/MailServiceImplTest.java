@@ -38,6 +38,17 @@ class MailServiceImplTest {
         verify(mailSender).send(any(SimpleMailMessage.class));
     }
 
+    @Test
+    @DisplayName("Send Text Mails: Should send the whole batch in one call")
+    void sendTextMails_Batch_ShouldSendOnce() {
+        SimpleMailMessage first = new SimpleMailMessage();
+        SimpleMailMessage second = new SimpleMailMessage();
+
+        mailService.sendTextMails(first, second);
+
+        verify(mailSender).send(first, second);
+    }
+
     @Test
     @DisplayName("Send HTML Mail: Should call mailSender.send(MimeMessage)")
     void sendHtmlMail_ValidInput_ShouldSend() {
@@ -0,0 +1,154 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.service.impl.RefreshAheadCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshAheadCacheTest {
+
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(5);
+    private static final Duration TTL = Duration.ofDays(1);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+    private final Queue<Runnable> pendingRefreshes = new ArrayDeque<>();
+    private final Callable<String> loader = () -> {
+        if (databaseDown.get()) {
+            throw new IllegalStateException("database unavailable");
+        }
+        return "v" + loads.incrementAndGet();
+    };
+
+    private RefreshAheadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RefreshAheadCache("voucherPages", Caffeine.newBuilder()
+                .expireAfterWrite(TTL)
+                .ticker(now::get)
+                .build(), REFRESH_AFTER, 10, pendingRefreshes::add, value -> !"approximate".equals(value));
+    }
+
+    @Test
+    @DisplayName("Should keep serving a hot page while it is reloaded in the background")
+    void get_RefreshDue_ShouldServeCurrentAndReload() {
+        assertThat(cache.get("page", loader)).isEqualTo("v1");
+
+        advance(REFRESH_AFTER.plusSeconds(1));
+
+        assertThat(cache.get("page", loader)).isEqualTo("v1");
+        assertThat(cache.get("page", loader)).isEqualTo("v1");
+        assertThat(pendingRefreshes).hasSize(1);
+
+        runPendingRefreshes();
+
+        assertThat(cache.get("page", loader)).isEqualTo("v2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should serve the last good page when a reload fails")
+    void get_ReloadFails_ShouldServeStale() {
+        assertThat(cache.get("page", loader)).isEqualTo("v1");
+        databaseDown.set(true);
+
+        advance(REFRESH_AFTER.plusSeconds(1));
+        cache.get("page", loader);
+        runPendingRefreshes();
+
+        assertThat(cache.get("page", loader)).isEqualTo("v1");
+
+        databaseDown.set(false);
+        runPendingRefreshes();
+
+        assertThat(cache.get("page", loader)).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("Should keep entries without a loader until the ttl instead of refreshing them")
+    void put_WithoutLoader_ShouldLiveUntilTtl() {
+        cache.put("stored", "value");
+
+        advance(REFRESH_AFTER.multipliedBy(10));
+
+        assertThat(cache.get("stored", String.class)).isEqualTo("value");
+        assertThat(pendingRefreshes).isEmpty();
+
+        advance(TTL);
+
+        assertThat(cache.get("stored", String.class)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop a page instead of caching a reload that is not cacheable")
+    void reload_NotCacheable_ShouldEvict() {
+        cache.get("page", loader);
+        advance(REFRESH_AFTER.plusSeconds(1));
+
+        cache.get("page", () -> "approximate");
+        runPendingRefreshes();
+
+        assertThat(cache.getNativeCache().asMap()).doesNotContainKey("page");
+    }
+
+    @Test
+    @DisplayName("Should return a page that is not cacheable without ever storing it")
+    void get_NotCacheable_ShouldNotStore() {
+        assertThat(cache.get("page", () -> "approximate")).isEqualTo("approximate");
+        assertThat(cache.getNativeCache().asMap()).doesNotContainKey("page");
+
+        assertThat(cache.get("page", loader)).isEqualTo("v1");
+        assertThat(cache.getNativeCache().asMap()).containsEntry("page", "v1");
+    }
+
+    @Test
+    @DisplayName("Should not resurrect a page evicted while its reload was running")
+    void reload_EvictedMeanwhile_ShouldNotRecache() {
+        cache.get("page", loader);
+        advance(REFRESH_AFTER.plusSeconds(1));
+        cache.get("page", loader);
+
+        cache.evict("page");
+        runPendingRefreshes();
+
+        assertThat(cache.getNativeCache().asMap()).doesNotContainKey("page");
+    }
+
+    @Test
+    @DisplayName("refreshAll: Should reload hot pages and drop pages it cannot rebuild")
+    void refreshAll_ShouldReloadKnownKeysOnly() {
+        cache.get("hot", loader);
+        cache.put("cold", "stored");
+
+        cache.refreshAll();
+
+        assertThat(cache.getNativeCache().asMap()).containsEntry("hot", "v1").doesNotContainKey("cold");
+
+        runPendingRefreshes();
+
+        assertThat(cache.getNativeCache().asMap()).containsEntry("hot", "v2");
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private void runPendingRefreshes() {
+        while (!pendingRefreshes.isEmpty()) {
+            pendingRefreshes.poll().run();
+        }
+    }
+}
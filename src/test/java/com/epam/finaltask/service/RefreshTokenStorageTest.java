@@ -0,0 +1,208 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.model.RefreshTokenEntry;
+import com.epam.finaltask.repository.RefreshTokenRepository;
+import com.epam.finaltask.service.impl.RefreshTokenStorage;
+import com.epam.finaltask.util.JwtProperties;
+import com.epam.finaltask.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStorageTest {
+
+    private static final String USER_ID = UUID.randomUUID().toString();
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private JwtUtil jwtUtil;
+    @Mock
+    private NotificationBus notificationBus;
+
+    private final JwtProperties jwtProperties = new JwtProperties();
+
+    private RefreshTokenStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties.getRefreshToken().setCleanupBatchSize(500);
+        storage = new RefreshTokenStorage(refreshTokenRepository, jwtUtil, jwtProperties,
+                notificationBus, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("get: Should serve a freshly stored token from memory")
+    void store_ThenGet_ShouldNotHitDatabase() {
+        storeToken("device-1", Duration.ofDays(2));
+
+        assertThat(storage.get("device-1")).isEqualTo(USER_ID);
+        verify(refreshTokenRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("get: Should reload tokens from the database after a restart")
+    void get_NotInMemory_ShouldLoadFromDatabase() {
+        RefreshTokenEntry entry = entry(UUID.randomUUID(), false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findById(entry.getTokenHash())).thenReturn(Optional.of(entry));
+
+        assertThat(storage.get("device-1")).isEqualTo(USER_ID);
+        assertThat(storage.get("device-1")).isEqualTo(USER_ID);
+
+        verify(refreshTokenRepository, times(1)).findById(entry.getTokenHash());
+    }
+
+    @Test
+    @DisplayName("get: Should not keep a token in memory past its exp claim")
+    void store_Expired_ShouldNotBeServedFromMemory() {
+        storeToken("device-1", Duration.ofSeconds(-1));
+
+        assertThat(storage.get("device-1")).isNull();
+        verify(refreshTokenRepository).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("get: Should revoke the whole session when a revoked token is presented")
+    void get_Revoked_ShouldRevokeFamily() {
+        UUID familyId = UUID.randomUUID();
+        when(refreshTokenRepository.findById(anyString()))
+                .thenReturn(Optional.of(entry(familyId, true, LocalDateTime.now().plusDays(1))));
+
+        assertThat(storage.get("device-1")).isNull();
+
+        verify(refreshTokenRepository).revokeFamily(familyId);
+        verify(notificationBus).publish("refresh-tokens", "family:" + familyId);
+    }
+
+    @Test
+    @DisplayName("store: Should keep one session per device")
+    void store_TwoDevices_ShouldKeepBothSessions() {
+        ArgumentCaptor<UUID> families = ArgumentCaptor.forClass(UUID.class);
+        storeToken("device-1", Duration.ofDays(2));
+        storeToken("device-2", Duration.ofDays(2));
+        verify(refreshTokenRepository, times(2)).insert(anyString(), any(UUID.class), families.capture(), any(LocalDateTime.class));
+        RefreshTokenEntry first = entry(families.getAllValues().get(0), false, LocalDateTime.now().plusDays(2));
+        when(refreshTokenRepository.findById(first.getTokenHash())).thenReturn(Optional.of(first));
+
+        storage.revoke("device-1");
+
+        verify(refreshTokenRepository).revokeFamily(first.getFamilyId());
+        assertThat(families.getAllValues().get(1)).isNotEqualTo(first.getFamilyId());
+        assertThat(storage.get("device-2")).isEqualTo(USER_ID);
+    }
+
+    @Test
+    @DisplayName("revokeSession: Should end only the session named in the token claims")
+    void revokeSession_ShouldRevokeOnlyThatFamily() {
+        UUID familyId = UUID.randomUUID();
+        when(jwtUtil.extractSessionId("device-1")).thenReturn(familyId.toString());
+        storeToken("device-1", Duration.ofDays(2));
+        storeToken("device-2", Duration.ofDays(2));
+
+        storage.revokeSession(familyId.toString());
+
+        verify(refreshTokenRepository).insert(eq(sha256("device-1")), any(UUID.class), eq(familyId), any(LocalDateTime.class));
+        verify(refreshTokenRepository).revokeFamily(familyId);
+        verify(refreshTokenRepository, never()).revokeByUserId(any());
+        assertThat(storage.get("device-2")).isEqualTo(USER_ID);
+    }
+
+    @Test
+    @DisplayName("rotate: Should issue the new token in the same session")
+    void rotate_Active_ShouldKeepFamily() {
+        UUID familyId = UUID.randomUUID();
+        RefreshTokenEntry current = entry(familyId, false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findById(current.getTokenHash())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(current.getTokenHash())).thenReturn(1);
+        when(jwtUtil.extractExpiration("device-1-next")).thenReturn(expiresIn(Duration.ofDays(2)));
+
+        assertThat(storage.rotate("device-1", "device-1-next")).isTrue();
+
+        verify(refreshTokenRepository).insert(eq(sha256("device-1-next")), any(UUID.class), eq(familyId), any(LocalDateTime.class));
+        assertThat(storage.get("device-1-next")).isEqualTo(USER_ID);
+        verify(notificationBus).publish("refresh-tokens", "token:" + current.getTokenHash());
+    }
+
+    @Test
+    @DisplayName("rotate: Should revoke the session when a token is used twice")
+    void rotate_AlreadyUsed_ShouldRevokeFamily() {
+        UUID familyId = UUID.randomUUID();
+        RefreshTokenEntry current = entry(familyId, true, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findById(current.getTokenHash())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(current.getTokenHash())).thenReturn(0);
+
+        assertThat(storage.rotate("device-1", "device-1-next")).isFalse();
+
+        verify(refreshTokenRepository).revokeFamily(familyId);
+        verify(refreshTokenRepository, never()).insert(anyString(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("onMessage: Should drop sessions revoked on another node")
+    void onMessage_UserRevoked_ShouldEvictHotTokens() {
+        storeToken("device-1", Duration.ofDays(2));
+
+        storage.onMessage("user:" + USER_ID);
+
+        assertThat(storage.get("device-1")).isNull();
+        verify(refreshTokenRepository).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("deleteExpired: Should delete one batch per run")
+    void deleteExpired_ShouldUseConfiguredBatchSize() {
+        when(refreshTokenRepository.deleteExpired(any(LocalDateTime.class), eq(500))).thenReturn(500);
+
+        assertThat(storage.deleteExpired()).isEqualTo(500);
+    }
+
+    private void storeToken(String token, Duration lifetime) {
+        when(jwtUtil.extractExpiration(token)).thenReturn(expiresIn(lifetime));
+        storage.store(USER_ID, token);
+    }
+
+    private RefreshTokenEntry entry(UUID familyId, boolean revoked, LocalDateTime expiresAt) {
+        return RefreshTokenEntry.builder()
+                .tokenHash(sha256("device-1"))
+                .userId(UUID.fromString(USER_ID))
+                .familyId(familyId)
+                .revoked(revoked)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private Date expiresIn(Duration lifetime) {
+        return new Date(System.currentTimeMillis() + lifetime.toMillis());
+    }
+
+    private String sha256(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
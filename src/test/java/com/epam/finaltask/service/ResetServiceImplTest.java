@@ -29,7 +29,7 @@ class ResetServiceImplTest {
     @Mock
     private TokenStorageService<ResetToken> resetTokenStorageService;
     @Mock
-    private MailService mailService;
+    private MailQueueService mailQueueService;
     @Mock
     private JwtProperties jwtProperties;
     @Mock
@@ -63,7 +63,7 @@ class ResetServiceImplTest {
         assertThat(capturedToken.getExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(59));
 
         ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mailService).sendTextMail(eq(email), eq(token), bodyCaptor.capture());
+        verify(mailQueueService).enqueueTextMail(eq(email), eq(token), bodyCaptor.capture());
         assertThat(bodyCaptor.getValue()).contains("/api/auth/reset-password/validate?token=" + token);
     }
 
@@ -80,7 +80,7 @@ class ResetServiceImplTest {
 
         // Assert
         ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mailService).sendTextMail(any(), any(), bodyCaptor.capture());
+        verify(mailQueueService).enqueueTextMail(any(), any(), bodyCaptor.capture());
         assertThat(bodyCaptor.getValue()).contains("/auth/reset-password/validate?token=t");
         assertThat(bodyCaptor.getValue()).doesNotContain("/api/auth/");
     }
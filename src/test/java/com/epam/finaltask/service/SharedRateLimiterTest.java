@@ -0,0 +1,120 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.repository.LoginAttemptRepository;
+import com.epam.finaltask.service.impl.SharedRateLimiter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong now = new AtomicLong(WINDOW.toMillis() * 1000);
+
+    private SharedRateLimiter nodeA;
+    private SharedRateLimiter nodeB;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute(new ClassPathResource("db/migration/V6__login_attempts.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM login_attempts");
+
+        LoginAttemptRepository repository = new LoginAttemptRepository(jdbcTemplate);
+        nodeA = new SharedRateLimiter("username", 4, WINDOW, repository, clock());
+        nodeB = new SharedRateLimiter("username", 4, WINDOW, repository, clock());
+    }
+
+    @Test
+    @DisplayName("Should count attempts made on every node against one budget")
+    void record_OnTwoNodes_ShouldShareBudget() {
+        nodeA.record("bob");
+        nodeA.record("bob");
+        nodeB.record("bob");
+        assertThat(nodeA.isLimited("bob")).isFalse();
+
+        nodeB.record("bob");
+
+        assertThat(nodeA.isLimited("bob")).isTrue();
+        assertThat(nodeB.isLimited("bob")).isTrue();
+        assertThat(nodeB.isLimited("alice")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should weight the previous window by how much of it still overlaps")
+    void isLimited_NextWindow_ShouldDecayPreviousCount() {
+        for (int i = 0; i < 4; i++) {
+            nodeA.record("bob");
+        }
+
+        now.addAndGet(WINDOW.toMillis() + WINDOW.toMillis() / 2);
+        assertThat(nodeB.isLimited("bob")).isFalse();
+
+        nodeB.record("bob");
+        nodeB.record("bob");
+        assertThat(nodeA.isLimited("bob")).isTrue();
+
+        now.addAndGet(WINDOW.toMillis() * 2);
+        assertThat(nodeA.isLimited("bob")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should lift the block on every node after a successful login")
+    void reset_OnOneNode_ShouldClearEverywhere() {
+        for (int i = 0; i < 4; i++) {
+            nodeA.record("bob");
+        }
+
+        nodeB.reset("bob");
+
+        assertThat(nodeA.isLimited("bob")).isFalse();
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneId.of("UTC");
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now.get());
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.config.CacheConfig;
+import com.epam.finaltask.dto.UserDTO;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import com.epam.finaltask.mapper.UserMapper;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.CacheType;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.repository.SharedCacheRepository;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.service.impl.AbstractTokenStorage;
+import com.epam.finaltask.service.impl.UserServiceImpl;
+import com.epam.finaltask.service.impl.VoucherPageStorage;
+import com.epam.finaltask.service.impl.VoucherServiceImpl;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import com.epam.finaltask.util.JwtProperties;
+import com.epam.finaltask.util.RefreshAheadProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightLoadingTest {
+
+    private static final int THREADS = 32;
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private BalanceLedgerService balanceLedgerService;
+    @Mock
+    private VoucherRepository voucherRepository;
+    @Mock
+    private VoucherMapper voucherMapper;
+    @Mock
+    private VoucherCountService voucherCountService;
+    @Mock
+    private VoucherInvalidationService voucherInvalidationService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final CountDownLatch arrived = new CountDownLatch(THREADS);
+
+    private UserServiceImpl userService;
+    private VoucherServiceImpl voucherService;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfig cacheConfig = new CacheConfig(new JwtProperties(), new DistributedCacheProperties(),
+                mock(SharedCacheRepository.class), mock(NotificationBus.class), new ObjectMapper(),
+                new RefreshAheadProperties(), new SyncTaskExecutor());
+        SimpleCacheManager cacheManager = (SimpleCacheManager) cacheConfig.cacheManager();
+        cacheManager.afterPropertiesSet();
+
+        LoadingTokenStorageService<UserDTO> userProfiles =
+                new AbstractTokenStorage<>(cacheManager, CacheType.CacheNames.USER_PROFILES, UserDTO.class) {
+                };
+        userService = new UserServiceImpl(userRepository, userMapper, userProfiles,
+                new ModelMapper(), tokenRevocationService, balanceLedgerService, mock(RefreshTokenStorageService.class));
+        voucherService = new VoucherServiceImpl(voucherRepository, voucherMapper, userRepository,
+                new VoucherPageStorage(cacheManager), userProfiles, voucherCountService,
+                balanceLedgerService, voucherInvalidationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("getUserByUsername: Concurrent misses for one user should query the database once")
+    void getUserByUsername_ConcurrentMisses_ShouldLoadOnce() throws Exception {
+        User user = User.builder().id(UUID.randomUUID()).username("bob").build();
+        when(userRepository.findUserByUsername("bob")).thenAnswer(invocation -> {
+            awaitContention();
+            return Optional.of(user);
+        });
+        when(userMapper.toUserDTO(user)).thenAnswer(invocation -> UserDTO.builder().username("bob").build());
+        when(balanceLedgerService.getBalance(user)).thenReturn(BigDecimal.TEN);
+
+        List<UserDTO> results = runConcurrently(i -> userService.getUserByUsername("bob"));
+
+        assertThat(results).hasSize(THREADS).allSatisfy(result -> assertThat(result).isSameAs(results.get(0)));
+        verify(userRepository, times(1)).findUserByUsername("bob");
+        verify(userMapper, times(1)).toUserDTO(user);
+    }
+
+    @Test
+    @DisplayName("findWithFilers: Concurrent misses should query the database once per page")
+    void findWithFilers_ConcurrentMisses_ShouldLoadOncePerKey() throws Exception {
+        VoucherFilerRequest filter = new VoucherFilerRequest();
+        Pageable first = PageRequest.of(0, 10);
+        Pageable second = PageRequest.of(1, 10);
+        when(voucherRepository.findViewSlice(ArgumentMatchers.<Specification<Voucher>>any(), any(Pageable.class))).thenAnswer(invocation -> {
+            awaitContention();
+            return new SliceImpl<>(List.of(), invocation.getArgument(1), false);
+        });
+        when(voucherCountService.getCount(filter)).thenReturn(0L);
+
+        List<VoucherPaginatedResponse> results = runConcurrently(i ->
+                voucherService.findWithFilers(filter, i % 2 == 0 ? first : second));
+
+        assertThat(results).hasSize(THREADS).doesNotContainNull();
+        verify(voucherRepository, times(1)).findViewSlice(ArgumentMatchers.<Specification<Voucher>>any(), eq(first));
+        verify(voucherRepository, times(1)).findViewSlice(ArgumentMatchers.<Specification<Voucher>>any(), eq(second));
+    }
+
+    private void awaitContention() throws InterruptedException {
+        arrived.await(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+    }
+
+    private <T> List<T> runConcurrently(IntFunction<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                arrived.countDown();
+                return task.apply(index);
+            }));
+        }
+        start.countDown();
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,53 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.service.impl.TokenRevocationServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+
+    @Mock
+    private TokenStorageService<Long> revokedTokensStorage;
+
+    @InjectMocks
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @Test
+    @DisplayName("revokeAll: Should store the revocation time truncated to whole seconds")
+    void revokeAll_ShouldStoreSecondPrecisionTimestamp() {
+        tokenRevocationService.revokeAll("user-1");
+
+        verify(revokedTokensStorage).store(eq("user-1"), longThat(time -> time % 1000 == 0));
+    }
+
+    @Test
+    @DisplayName("isRevoked: Tokens issued before or in the same second as the revocation should be rejected")
+    void isRevoked_IssuedBeforeOrSameSecond_ShouldReturnTrue() {
+        when(revokedTokensStorage.get("user-1")).thenReturn(10_000L);
+
+        assertThat(tokenRevocationService.isRevoked("user-1", new Date(9_000))).isTrue();
+        assertThat(tokenRevocationService.isRevoked("user-1", new Date(10_000))).isTrue();
+        assertThat(tokenRevocationService.isRevoked("user-1", null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("isRevoked: Tokens issued in a later second or for other users should pass")
+    void isRevoked_IssuedAfterOrNotRevoked_ShouldReturnFalse() {
+        when(revokedTokensStorage.get("user-1")).thenReturn(10_000L);
+        when(revokedTokensStorage.get("user-2")).thenReturn(null);
+
+        assertThat(tokenRevocationService.isRevoked("user-1", new Date(11_000))).isFalse();
+        assertThat(tokenRevocationService.isRevoked("user-2", new Date(0))).isFalse();
+    }
+}
@@ -0,0 +1,190 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.UserDTO;
+import com.epam.finaltask.model.ResetToken;
+import com.epam.finaltask.model.SharedCacheEntry;
+import com.epam.finaltask.repository.SharedCacheRepository;
+import com.epam.finaltask.service.impl.PostgresNotificationBus;
+import com.epam.finaltask.service.impl.TwoLevelCache;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheTest {
+
+    private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<PostgresNotificationBus> buses = new ArrayList<>();
+
+    private TwoLevelCache nodeA;
+    private TwoLevelCache nodeB;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute(new ClassPathResource("db/migration/V4__shared_cache.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM shared_cache");
+
+        nodeA = startNode();
+        nodeB = startNode();
+
+        await(() -> listeningSessions() == 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(PostgresNotificationBus::stop);
+        await(() -> listeningSessions() == 0);
+    }
+
+    @Test
+    @DisplayName("Should read a value stored on another node from the shared store")
+    void put_OnOneNode_ShouldBeVisibleOnOther() {
+        UserDTO user = UserDTO.builder().id("1").username("bob").build();
+
+        nodeA.put("bob", user);
+
+        assertThat(nodeB.get("bob", UserDTO.class)).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("Should evict stale near copies on other nodes when a value changes")
+    void update_OnOneNode_ShouldInvalidateOtherNearCaches() {
+        nodeA.put("bob", UserDTO.builder().username("bob").email("old@example.com").build());
+        assertThat(nodeB.get("bob", UserDTO.class).getEmail()).isEqualTo("old@example.com");
+
+        nodeA.put("bob", UserDTO.builder().username("bob").email("new@example.com").build());
+
+        await(() -> "new@example.com".equals(nodeB.get("bob", UserDTO.class).getEmail()));
+    }
+
+    @Test
+    @DisplayName("Should drop revoked values on every node")
+    void evict_OnOneNode_ShouldRemoveEverywhere() {
+        ResetToken token = ResetToken.builder()
+                .token("reset")
+                .expiresAt(LocalDateTime.now().plusMinutes(15).withNano(0))
+                .build();
+        nodeA.put("reset", token);
+        assertThat(nodeB.get("reset", ResetToken.class)).isEqualTo(token);
+
+        nodeA.evict("reset");
+
+        await(() -> nodeB.get("reset") == null);
+    }
+
+    @Test
+    @DisplayName("Should load a missing value once and share it with other nodes")
+    void getWithLoader_ShouldStoreLoadedValueInSharedStore() {
+        assertThat(nodeA.get("count", () -> 42L)).isEqualTo(42L);
+
+        assertThat(nodeB.get("count", () -> -1L)).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should let only one node claim a key")
+    void putIfAbsent_OnTwoNodes_ShouldLetOneWin() {
+        assertThat(nodeA.putIfAbsent("claim", 1L)).isNull();
+
+        assertThat(nodeB.putIfAbsent("claim", 2L)).isNotNull().extracting(Cache.ValueWrapper::get).isEqualTo(1L);
+        assertThat(nodeB.get("claim", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should take over a claim whose shared entry has expired")
+    void putIfAbsent_Expired_ShouldWin() {
+        new SharedCacheRepository(jdbcTemplate).upsert("userProfiles", "claim",
+                new SharedCacheEntry(Long.class.getName(), "1"), Duration.ofMillis(-1));
+
+        assertThat(nodeB.putIfAbsent("claim", 2L)).isNull();
+        assertThat(nodeA.get("claim", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should remember a miss near until another node writes the key")
+    void get_Missing_ShouldCacheAbsenceUntilNotified() {
+        assertThat(nodeB.get("bob")).isNull();
+
+        new SharedCacheRepository(jdbcTemplate).upsert("userProfiles", "bob",
+                new SharedCacheEntry(Long.class.getName(), "1"), Duration.ofMinutes(15));
+        assertThat(nodeB.get("bob")).isNull();
+
+        nodeA.put("bob", 2L);
+
+        await(() -> Long.valueOf(2L).equals(nodeB.get("bob", Long.class)));
+    }
+
+    private TwoLevelCache startNode() {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(postgres.getJdbcUrl("postgres", "postgres"));
+        dataSourceProperties.setUsername("postgres");
+        DistributedCacheProperties properties = new DistributedCacheProperties();
+        properties.setEnabled(true);
+
+        PostgresNotificationBus bus = new PostgresNotificationBus(dataSourceProperties, jdbcTemplate, properties);
+        TwoLevelCache cache = new TwoLevelCache(new CaffeineCache("userProfiles", Caffeine.newBuilder().build()),
+                Caffeine.newBuilder().expireAfterWrite(properties.getNegativeTtl()).build(),
+                Duration.ofMinutes(15), new SharedCacheRepository(jdbcTemplate), bus, objectMapper);
+        bus.subscribe(cache.getTopic(), cache);
+        bus.start();
+        buses.add(bus);
+
+        return cache;
+    }
+
+    private int listeningSessions() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE query LIKE 'LISTEN%' AND pid <> pg_backend_pid()",
+                Integer.class);
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + AWAIT_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", AWAIT_TIMEOUT).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.epam.finaltask.exception.ResourceNotFoundException;
 import com.epam.finaltask.mapper.PaginationMapper;
 import com.epam.finaltask.mapper.UserMapper;
 import com.epam.finaltask.model.AuthProvider;
+import com.epam.finaltask.model.LedgerEntryType;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.repository.UserRepository;
 import com.epam.finaltask.service.impl.UserServiceImpl;
@@ -28,6 +29,7 @@ import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -42,7 +44,16 @@ class UserServiceImplTest {
     private UserMapper userMapper;
 
     @Mock
-    private TokenStorageService<UserDTO> userTokenStorageService;
+    private LoadingTokenStorageService<UserDTO> userTokenStorageService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private BalanceLedgerService balanceLedgerService;
+
+    @Mock
+    private RefreshTokenStorageService refreshTokenStorage;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -172,12 +183,14 @@ class UserServiceImplTest {
         BigDecimal expectedBalance = user.getBalance().add(amountToAdd);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(userRepository.save(user)).thenReturn(user);
         when(userMapper.toUserDTO(user)).thenReturn(userDTO);
+        when(balanceLedgerService.getBalance(user)).thenReturn(expectedBalance);
 
-        userService.changeBalance(userId.toString(), amountToAdd);
+        UserDTO result = userService.changeBalance(userId.toString(), amountToAdd, "top-up-1");
 
-        assertEquals(expectedBalance, user.getBalance());
+        assertEquals(expectedBalance, result.getBalance());
+        verify(balanceLedgerService).credit(userId, LedgerEntryType.TOP_UP, amountToAdd, null, "top-up-1");
+        verify(userRepository, never()).save(any());
         verify(userTokenStorageService).revoke(userId.toString());
         verify(userTokenStorageService).revoke(user.getUsername());
     }
@@ -187,8 +200,9 @@ class UserServiceImplTest {
     void changeBalance_ShouldThrow_WhenAmountNegative() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        assertThrows(RuntimeException.class, () -> userService.changeBalance(userId.toString(), BigDecimal.valueOf(-1)));
+        assertThrows(RuntimeException.class, () -> userService.changeBalance(userId.toString(), BigDecimal.valueOf(-1), null));
         verify(userRepository, never()).save(any());
+        verifyNoInteractions(balanceLedgerService);
     }
 
     @Test
@@ -196,7 +210,7 @@ class UserServiceImplTest {
     void changeBalance_ShouldThrow_WhenAmountZero() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        assertThrows(RuntimeException.class, () -> userService.changeBalance(userId.toString(), BigDecimal.ZERO));
+        assertThrows(RuntimeException.class, () -> userService.changeBalance(userId.toString(), BigDecimal.ZERO, null));
     }
 
     @Test
@@ -204,7 +218,7 @@ class UserServiceImplTest {
     void changeBalance_ShouldThrow_WhenAmountNull() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        assertThrows(RuntimeException.class, () -> userService.changeBalance(userId.toString(), null));
+        assertThrows(RuntimeException.class, () -> userService.changeBalance(userId.toString(), null, null));
     }
 
     @Test
@@ -214,13 +228,13 @@ class UserServiceImplTest {
         String idStr = userId.toString();
         BigDecimal amount = BigDecimal.TEN;
 
-        assertThrows(ResourceNotFoundException.class, () -> userService.changeBalance(idStr, amount));
+        assertThrows(ResourceNotFoundException.class, () -> userService.changeBalance(idStr, amount, null));
     }
 
     @Test
     @DisplayName("getUserByUsername: return from cache")
     void getUserByUsername_ShouldReturnFromCache() {
-        when(userTokenStorageService.get(userDTO.getUsername())).thenReturn(userDTO);
+        when(userTokenStorageService.get(eq(userDTO.getUsername()), any())).thenReturn(userDTO);
 
         UserDTO result = userService.getUserByUsername(userDTO.getUsername());
 
@@ -231,21 +245,22 @@ class UserServiceImplTest {
     @Test
     @DisplayName("getUserByUsername: load from DB if cache is empty")
     void getUserByUsername_ShouldLoadFromDb_WhenCacheMiss() {
-        when(userTokenStorageService.get(userDTO.getUsername())).thenReturn(null);
+        loadThroughCache();
         when(userRepository.findUserByUsername(userDTO.getUsername())).thenReturn(Optional.of(user));
         when(userMapper.toUserDTO(user)).thenReturn(userDTO);
+        when(balanceLedgerService.getBalance(user)).thenReturn(BigDecimal.valueOf(25));
 
         UserDTO result = userService.getUserByUsername(userDTO.getUsername());
 
         assertEquals(userDTO, result);
-        verify(userTokenStorageService).store(userDTO.getId(), userDTO);
-        verify(userTokenStorageService).store(userDTO.getUsername(), userDTO);
+        assertEquals(BigDecimal.valueOf(25), result.getBalance());
+        verify(userTokenStorageService).get(eq(userDTO.getUsername()), any());
     }
 
     @Test
     @DisplayName("getUserByUsername: exception if cache and DB is empty ошибка")
     void getUserByUsername_ShouldThrow_WhenNotFound() {
-        when(userTokenStorageService.get("unknown")).thenReturn(null);
+        loadThroughCache();
         when(userRepository.findUserByUsername("unknown")).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserByUsername("unknown"));
@@ -277,12 +292,28 @@ class UserServiceImplTest {
 
         verify(userTokenStorageService).revoke(userId);
         verify(userTokenStorageService).revoke(username);
+        verify(tokenRevocationService).revokeAll(user.getId().toString());
+        verify(refreshTokenStorage).revokeAllForUser(user.getId().toString());
+    }
+
+    @Test
+    @DisplayName("changeAccountStatus: reactivation keeps refresh tokens untouched")
+    void changeAccountStatus_Reactivate_ShouldNotRevokeRefreshTokens() {
+        user.setActive(false);
+
+        when(userRepository.findUserByUsername(userDTO.getUsername())).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toUserDTO(user)).thenReturn(userDTO);
+
+        userService.changeAccountStatus(userDTO.getUsername());
+
+        verifyNoInteractions(tokenRevocationService, refreshTokenStorage);
     }
 
     @Test
     @DisplayName("getUserById: return from cache")
     void getUserById_ShouldReturnFromCache() {
-        when(userTokenStorageService.get(userId.toString())).thenReturn(userDTO);
+        when(userTokenStorageService.get(eq(userId.toString()), any())).thenReturn(userDTO);
 
         UserDTO result = userService.getUserById(userId);
 
@@ -293,20 +324,21 @@ class UserServiceImplTest {
     @Test
     @DisplayName("getUserById: load from DB if cache is empty")
     void getUserById_ShouldLoadFromDb() {
-        when(userTokenStorageService.get(userId.toString())).thenReturn(null);
+        loadThroughCache();
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(userMapper.toUserDTO(user)).thenReturn(userDTO);
+        when(balanceLedgerService.getBalance(user)).thenReturn(BigDecimal.TEN);
 
         UserDTO result = userService.getUserById(userId);
 
         assertEquals(userDTO, result);
-        verify(userTokenStorageService).store(userDTO.getId(), userDTO);
+        verify(userRepository).findById(userId);
     }
 
     @Test
     @DisplayName("getUserById: exception if user is not found")
     void getUserById_ShouldThrow_WhenNotFound() {
-        when(userTokenStorageService.get(userId.toString())).thenReturn(null);
+        loadThroughCache();
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(userId));
@@ -434,4 +466,9 @@ class UserServiceImplTest {
         verify(userRepository, never()).existsByEmailAndIdNot(anyString(), any());
         verify(userRepository).save(user);
     }
+
+    private void loadThroughCache() {
+        when(userTokenStorageService.get(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<UserDTO>>getArgument(1).get());
+    }
 }
@@ -0,0 +1,132 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.model.CacheType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.service.impl.VoucherCountServiceImpl;
+import com.epam.finaltask.service.impl.VoucherCountStorage;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoucherCountServiceImplTest {
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private VoucherCountServiceImpl countService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CacheType.CacheNames.VOUCHER_COUNTS,
+                Caffeine.newBuilder().build())));
+        cacheManager.afterPropertiesSet();
+
+        countService = new VoucherCountServiceImpl(voucherRepository, new VoucherCountStorage(cacheManager), tasks::add);
+    }
+
+    @Test
+    @DisplayName("getCount: Should return null on miss and refresh asynchronously once")
+    void getCount_Miss_ShouldRefreshInBackground() {
+        VoucherFilerRequest filter = new VoucherFilerRequest();
+        when(voucherRepository.count(any(Specification.class))).thenReturn(42L);
+
+        assertThat(countService.getCount(filter)).isNull();
+        assertThat(countService.getCount(filter)).isNull();
+        assertThat(tasks).hasSize(1);
+        verify(voucherRepository, never()).count(any(Specification.class));
+
+        tasks.forEach(Runnable::run);
+
+        assertThat(countService.getCount(filter)).isEqualTo(42L);
+        verify(voucherRepository, times(1)).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("getCount: Sort order should not split the cached count")
+    void getCount_DifferentSort_ShouldShareCount() {
+        VoucherFilerRequest byPrice = new VoucherFilerRequest();
+        byPrice.setSortField("price");
+        when(voucherRepository.count(any(Specification.class))).thenReturn(3L);
+
+        countService.getCount(new VoucherFilerRequest());
+        tasks.forEach(Runnable::run);
+
+        assertThat(countService.getCount(byPrice)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("evict: Should drop affected counts and discard refreshes started before the write")
+    void evict_ShouldInvalidateAffectedCounts() {
+        VoucherFilerRequest safari = new VoucherFilerRequest();
+        safari.setTours(List.of(TourType.SAFARI));
+        VoucherFilerRequest wine = new VoucherFilerRequest();
+        wine.setTours(List.of(TourType.WINE));
+        when(voucherRepository.count(any(Specification.class))).thenReturn(5L);
+
+        countService.getCount(safari);
+        countService.getCount(wine);
+        tasks.forEach(Runnable::run);
+        tasks.clear();
+
+        countService.evict(VoucherChange.of(Voucher.builder()
+                .id(UUID.randomUUID())
+                .status(VoucherStatus.CREATED)
+                .tourType(TourType.WINE)
+                .build()));
+
+        assertThat(countService.getCount(safari)).isEqualTo(5L);
+        assertThat(countService.getCount(wine)).isNull();
+
+        countService.evict(new VoucherChange());
+        tasks.forEach(Runnable::run);
+
+        assertThat(countService.getCount(wine)).isNull();
+    }
+
+    @Test
+    @DisplayName("evict: Should keep refreshes of counts the write does not affect")
+    void evict_Unaffected_ShouldKeepInFlightRefresh() {
+        VoucherFilerRequest safari = new VoucherFilerRequest();
+        safari.setTours(List.of(TourType.SAFARI));
+        VoucherFilerRequest wine = new VoucherFilerRequest();
+        wine.setTours(List.of(TourType.WINE));
+        when(voucherRepository.count(any(Specification.class))).thenReturn(7L);
+
+        countService.getCount(safari);
+        countService.getCount(wine);
+
+        countService.evict(VoucherChange.of(Voucher.builder()
+                .id(UUID.randomUUID())
+                .status(VoucherStatus.CREATED)
+                .tourType(TourType.WINE)
+                .build()));
+        tasks.forEach(Runnable::run);
+
+        assertThat(countService.getCount(safari)).isEqualTo(7L);
+        assertThat(countService.getCount(wine)).isNull();
+        assertThat(tasks).hasSize(3);
+    }
+}
@@ -0,0 +1,164 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.service.impl.VoucherInvalidationServiceImpl;
+import com.epam.finaltask.util.DistributedCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoucherInvalidationServiceImplTest {
+
+    @Mock
+    private NotificationBus notificationBus;
+    @Mock
+    private VoucherPageStorageService voucherPageStorage;
+    @Mock
+    private VoucherCountService voucherCountService;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final DistributedCacheProperties properties = new DistributedCacheProperties();
+
+    private VoucherInvalidationServiceImpl invalidationService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        invalidationService = new VoucherInvalidationServiceImpl(notificationBus, voucherPageStorage,
+                voucherCountService, properties, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("publish: Should coalesce a burst of changes into one notification")
+    void publish_Burst_ShouldSendSingleMergedNotification() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        invalidationService.publish(VoucherChange.of(voucher(first, TourType.ADVENTURE)));
+        invalidationService.publish(VoucherChange.of(voucher(second, TourType.CULTURAL)));
+        invalidationService.flush();
+        invalidationService.flush();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(notificationBus).publish(eq("vouchers"), payload.capture());
+
+        VoucherChange sent = objectMapper.readValue(payload.getValue(), VoucherChange.class);
+        assertThat(sent.getVoucherIds()).containsExactlyInAnyOrder(first, second);
+        assertThat(sent.getTourTypes()).containsExactlyInAnyOrder(TourType.ADVENTURE, TourType.CULTURAL);
+    }
+
+    @Test
+    @DisplayName("flush: Should keep a change whose notification failed and send it on the next flush")
+    void flush_PublishFails_ShouldRetryMergedChange() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        doThrow(new IllegalStateException("connection lost"))
+                .doNothing()
+                .when(notificationBus).publish(eq("vouchers"), anyString());
+
+        invalidationService.publish(VoucherChange.of(voucher(first, TourType.ADVENTURE)));
+        invalidationService.flush();
+        invalidationService.publish(VoucherChange.of(voucher(second, TourType.CULTURAL)));
+        invalidationService.flush();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(notificationBus, times(2)).publish(eq("vouchers"), payload.capture());
+
+        VoucherChange sent = objectMapper.readValue(payload.getValue(), VoucherChange.class);
+        assertThat(sent.getVoucherIds()).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    @DisplayName("publish: Should wait for the surrounding transaction to commit")
+    void publish_InTransaction_ShouldSendAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidationService.publish(VoucherChange.of(voucher(UUID.randomUUID(), TourType.SAFARI)));
+        invalidationService.flush();
+        verify(notificationBus, never()).publish(anyString(), anyString());
+        verify(voucherPageStorage, never()).evict(any(VoucherChange.class));
+        verify(voucherCountService, never()).evict(any(VoucherChange.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(voucherPageStorage).evict(any(VoucherChange.class));
+        verify(voucherCountService).evict(any(VoucherChange.class));
+        invalidationService.flush();
+        verify(notificationBus).publish(eq("vouchers"), anyString());
+    }
+
+    @Test
+    @DisplayName("publish: Should only evict locally when the distributed cache is disabled")
+    void publish_Disabled_ShouldNotSend() {
+        properties.setEnabled(false);
+
+        invalidationService.publish(VoucherChange.of(voucher(UUID.randomUUID(), TourType.SAFARI)));
+        invalidationService.flush();
+
+        verify(voucherPageStorage).evict(any(VoucherChange.class));
+        verifyNoInteractions(notificationBus);
+    }
+
+    @Test
+    @DisplayName("onMessage: Should apply remote changes once per flush")
+    void onMessage_Burst_ShouldEvictOnce() throws Exception {
+        invalidationService.onMessage(objectMapper.writeValueAsString(
+                VoucherChange.of(voucher(UUID.randomUUID(), TourType.ADVENTURE))));
+        invalidationService.onMessage(objectMapper.writeValueAsString(
+                VoucherChange.of(voucher(UUID.randomUUID(), TourType.HEALTH))));
+
+        invalidationService.flush();
+
+        ArgumentCaptor<VoucherChange> change = ArgumentCaptor.forClass(VoucherChange.class);
+        verify(voucherPageStorage).evict(change.capture());
+        verify(voucherCountService).evict(any(VoucherChange.class));
+        assertThat(change.getValue().getVoucherIds()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("onMessagesLost: Should refresh every cached catalog page")
+    void onMessagesLost_ShouldEvictAll() {
+        invalidationService.onMessagesLost();
+
+        invalidationService.flush();
+
+        verify(voucherPageStorage).refreshAll();
+        verify(voucherCountService).evictAll();
+        verify(voucherPageStorage, never()).evict(any(VoucherChange.class));
+    }
+
+    private Voucher voucher(UUID id, TourType tourType) {
+        Voucher voucher = new Voucher();
+        voucher.setId(id);
+        voucher.setTourType(tourType);
+        voucher.setStatus(VoucherStatus.CREATED);
+        return voucher;
+    }
+}
@@ -0,0 +1,340 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.UserDTO;
+import com.epam.finaltask.dto.VoucherStatusRequest;
+import com.epam.finaltask.exception.AlreadyInUseException;
+import com.epam.finaltask.exception.NotEnoughBalanceException;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.LedgerEntryType;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.service.impl.BalanceLedgerServiceImpl;
+import com.epam.finaltask.service.impl.VoucherServiceImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "application.ledger.apply-interval=3600000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VoucherServiceImpl.class, BalanceLedgerServiceImpl.class})
+class VoucherOrderConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private VoucherService voucherService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private VoucherMapper voucherMapper;
+
+    @MockitoBean
+    private VoucherPageStorageService voucherPageStorage;
+
+    @MockitoBean
+    private VoucherCountService voucherCountService;
+
+    @MockitoBean
+    private TokenStorageService<UserDTO> userTokenStorageService;
+
+    @MockitoBean
+    private VoucherInvalidationService voucherInvalidationService;
+
+    @TestConfiguration
+    static class EmbeddedDatabaseConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+
+    @Test
+    @DisplayName("order: Exactly one of many concurrent buyers should get the voucher")
+    void order_ConcurrentBuyers_ShouldHaveSingleWinner() throws Exception {
+        UUID voucherId = insertVoucher(BigDecimal.valueOf(100));
+        List<UUID> buyers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            buyers.add(insertUser(BigDecimal.valueOf(100)));
+        }
+
+        List<Object> results = runConcurrently(buyers.stream()
+                .<Callable<Object>>map(buyer -> () -> voucherService.order(voucherId.toString(), buyer.toString()))
+                .toList());
+
+        assertThat(results).filteredOn(AlreadyInUseException.class::isInstance).hasSize(THREADS - 1);
+        assertThat(results).filteredOn(result -> !(result instanceof Exception)).hasSize(1);
+
+        UUID owner = jdbcTemplate.queryForObject(
+                "SELECT user_id FROM vouchers WHERE id = ?", UUID.class, voucherId);
+        assertThat(buyers).contains(owner);
+        assertThat(balanceOf(owner)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(buyers.stream().map(this::balanceOf).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo(BigDecimal.valueOf(100L * (THREADS - 1)));
+    }
+
+    @Test
+    @DisplayName("order: Concurrent purchases by one user should never overdraw or lose a debit")
+    void order_ConcurrentPurchasesBySameUser_ShouldNotLoseDebits() throws Exception {
+        UUID buyer = insertUser(BigDecimal.valueOf(300));
+        List<UUID> vouchers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            vouchers.add(insertVoucher(BigDecimal.valueOf(100)));
+        }
+
+        List<Object> results = runConcurrently(vouchers.stream()
+                .<Callable<Object>>map(voucher -> () -> voucherService.order(voucher.toString(), buyer.toString()))
+                .toList());
+
+        assertThat(results).filteredOn(NotEnoughBalanceException.class::isInstance).hasSize(THREADS - 3);
+        assertThat(results).filteredOn(result -> !(result instanceof Exception)).hasSize(3);
+        assertThat(balanceOf(buyer)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM vouchers WHERE user_id = ?", Integer.class, buyer)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(amount) FROM balance_ledger "
+                + "WHERE user_id = ? AND entry_type = 'ORDER'", BigDecimal.class, buyer))
+                .isEqualByComparingTo(BigDecimal.valueOf(-300));
+    }
+
+    @Test
+    @DisplayName("ledger: Concurrent top-ups should all land once pending credits are applied")
+    void ledger_ConcurrentTopUps_ShouldBeAppliedExactlyOnce() throws Exception {
+        UUID user = insertUser(BigDecimal.ZERO);
+        List<Callable<Object>> topUps = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String key = "top-up-" + (i % (THREADS / 2));
+            topUps.add(() -> balanceLedgerService.credit(user, LedgerEntryType.TOP_UP, BigDecimal.TEN, null, key));
+        }
+
+        List<Object> results = runConcurrently(topUps);
+
+        assertThat(results).filteredOn(Boolean.TRUE::equals).hasSize(THREADS / 2);
+        assertThat(results).filteredOn(Boolean.FALSE::equals).hasSize(THREADS / 2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_ledger WHERE user_id = ?",
+                Integer.class, user)).isEqualTo(THREADS / 2);
+        assertThat(balanceOf(user)).isEqualByComparingTo(BigDecimal.ZERO);
+        balanceLedgerService.applyPending();
+
+        assertThat(balanceOf(user)).isEqualByComparingTo(BigDecimal.valueOf(10L * (THREADS / 2)));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_ledger WHERE user_id = ? AND NOT applied",
+                Integer.class, user)).isZero();
+    }
+
+    @Test
+    @DisplayName("order: Pending top-ups should be usable by the next purchase")
+    void order_WithPendingTopUp_ShouldApplyCreditsFirst() {
+        UUID user = insertUser(BigDecimal.ZERO);
+        UUID voucher = insertVoucher(BigDecimal.valueOf(50));
+        balanceLedgerService.credit(user, LedgerEntryType.TOP_UP, BigDecimal.valueOf(80), null, null);
+
+        voucherService.order(voucher.toString(), user.toString());
+
+        assertThat(balanceOf(user)).isEqualByComparingTo(BigDecimal.valueOf(30));
+    }
+
+    @Test
+    @DisplayName("checkout: Overlapping carts should never be split between buyers")
+    void checkout_OverlappingCarts_ShouldBeAllOrNothing() throws Exception {
+        List<UUID> vouchers = List.of(insertVoucher(BigDecimal.TEN), insertVoucher(BigDecimal.TEN),
+                insertVoucher(BigDecimal.TEN));
+        UUID first = insertUser(BigDecimal.valueOf(100));
+        UUID second = insertUser(BigDecimal.valueOf(100));
+
+        List<Object> results = runConcurrently(List.of(
+                () -> voucherService.checkout(vouchers.subList(0, 2), first.toString()),
+                () -> voucherService.checkout(vouchers.subList(1, 3), second.toString())));
+
+        assertThat(results).filteredOn(AlreadyInUseException.class::isInstance).hasSize(1);
+        assertThat(balanceOf(first).add(balanceOf(second))).isEqualByComparingTo(BigDecimal.valueOf(180));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT user_id) FROM vouchers WHERE id IN (?, ?, ?)",
+                Integer.class, vouchers.toArray())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("changeStatus: Concurrent cancels should refund the owner exactly once")
+    void changeStatus_ConcurrentCancels_ShouldRefundOnce() throws Exception {
+        UUID buyer = insertUser(BigDecimal.valueOf(100));
+        UUID voucher = insertVoucher(BigDecimal.valueOf(100));
+        voucherService.order(voucher.toString(), buyer.toString());
+
+        VoucherStatusRequest cancel = new VoucherStatusRequest();
+        cancel.setVoucherStatus("CANCELED");
+        List<Callable<Object>> cancels = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            cancels.add(() -> voucherService.changeStatus(voucher.toString(), cancel));
+        }
+
+        List<Object> results = runConcurrently(cancels);
+
+        // a cancel that reads the voucher after the release finds no owner and only sets the status again
+        assertThat(results).filteredOn(Exception.class::isInstance).allMatch(AlreadyInUseException.class::isInstance);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_ledger "
+                + "WHERE user_id = ? AND entry_type = 'REFUND'", Integer.class, buyer)).isEqualTo(1);
+        balanceLedgerService.applyPending();
+        assertThat(balanceOf(buyer)).isEqualByComparingTo(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    @DisplayName("refund: Each claim should be refundable once, and a replayed refund should be skipped")
+    void refund_ShouldBeKeyedPerClaim() {
+        UUID buyer = insertUser(BigDecimal.valueOf(100));
+        UUID voucherId = insertVoucher(BigDecimal.valueOf(100));
+        VoucherStatusRequest cancel = new VoucherStatusRequest();
+        cancel.setVoucherStatus("CANCELED");
+
+        voucherService.order(voucherId.toString(), buyer.toString());
+        UUID claimId = jdbcTemplate.queryForObject("SELECT claim_id FROM vouchers WHERE id = ?", UUID.class, voucherId);
+        voucherService.changeStatus(voucherId.toString(), cancel);
+        Voucher voucher = Voucher.builder().id(voucherId).price(BigDecimal.valueOf(100)).claimId(claimId).build();
+        assertThat(balanceLedgerService.refund(buyer, voucher)).isFalse();
+
+        balanceLedgerService.applyPending();
+        voucherService.order(voucherId.toString(), buyer.toString());
+        voucherService.changeStatus(voucherId.toString(), cancel);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_ledger "
+                + "WHERE user_id = ? AND entry_type = 'REFUND'", Integer.class, buyer)).isEqualTo(2);
+        balanceLedgerService.applyPending();
+        assertThat(balanceOf(buyer)).isEqualByComparingTo(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    @DisplayName("debit: A claim should be debited once, a replayed debit should be rejected by its key")
+    void debit_SameClaimTwice_ShouldBeRejected() {
+        UUID buyer = insertUser(BigDecimal.valueOf(100));
+        UUID voucherId = insertVoucher(BigDecimal.valueOf(40));
+        Voucher voucher = Voucher.builder().id(voucherId).price(BigDecimal.valueOf(40)).build();
+        UUID claimId = UUID.randomUUID();
+
+        assertThat(balanceLedgerService.debit(buyer, List.of(voucher), claimId)).isTrue();
+        assertThatThrownBy(() -> balanceLedgerService.debit(buyer, List.of(voucher), claimId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(balanceOf(buyer)).isEqualByComparingTo(BigDecimal.valueOf(60));
+        assertThat(jdbcTemplate.queryForObject("SELECT idempotency_key FROM balance_ledger "
+                + "WHERE user_id = ? AND entry_type = 'ORDER'", String.class, buyer))
+                .isEqualTo("order:" + voucherId + ":" + claimId);
+    }
+
+    @Test
+    @DisplayName("getBalance: Should count pending credits exactly once")
+    void getBalance_PendingCredits_ShouldBeCountedOnce() {
+        UUID userId = insertUser(BigDecimal.valueOf(10));
+        balanceLedgerService.credit(userId, LedgerEntryType.TOP_UP, BigDecimal.valueOf(5), null, "top-up-1");
+        User user = User.builder().id(userId).balance(BigDecimal.valueOf(10)).build();
+
+        assertThat(balanceLedgerService.getBalance(user)).isEqualByComparingTo(BigDecimal.valueOf(15));
+        balanceLedgerService.applyPending();
+        assertThat(balanceLedgerService.getBalance(user)).isEqualByComparingTo(BigDecimal.valueOf(15));
+    }
+
+    @Test
+    @DisplayName("changeStatus: A hot-flag edit racing a purchase should keep the buyer")
+    void changeStatus_RacingOrder_ShouldNotOverwriteOwner() throws Exception {
+        VoucherStatusRequest hot = new VoucherStatusRequest();
+        hot.setIsHot(true);
+        List<UUID> vouchers = new ArrayList<>();
+        List<Callable<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS / 2; i++) {
+            UUID voucher = insertVoucher(BigDecimal.TEN);
+            UUID buyer = insertUser(BigDecimal.TEN);
+            vouchers.add(voucher);
+            calls.add(() -> voucherService.order(voucher.toString(), buyer.toString()));
+            calls.add(() -> voucherService.changeStatus(voucher.toString(), hot));
+        }
+
+        List<Object> results = runConcurrently(calls);
+
+        assertThat(results).noneMatch(Exception.class::isInstance);
+        for (UUID voucher : vouchers) {
+            assertThat(jdbcTemplate.queryForMap("SELECT user_id, voucher_status_type, is_hot FROM vouchers "
+                    + "WHERE id = ?", voucher))
+                    .doesNotContainEntry("user_id", null)
+                    .containsEntry("voucher_status_type", "REGISTERED")
+                    .containsEntry("is_hot", true);
+        }
+    }
+
+    private List<Object> runConcurrently(List<Callable<Object>> orders) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(orders.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (Callable<Object> order : orders) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return order.call();
+                    } catch (Exception e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UUID insertUser(BigDecimal balance) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, password, user_role, auth_provider, balance) "
+                + "VALUES (?, ?, 'secret', 'USER', 'LOCAL', ?)", id, "buyer-" + id, balance);
+        return id;
+    }
+
+    private UUID insertVoucher(BigDecimal price) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO vouchers (id, title, price, voucher_status_type) "
+                + "VALUES (?, 'Trip', ?, 'CREATED')", id, price);
+        return id;
+    }
+
+    private BigDecimal balanceOf(UUID userId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM users WHERE id = ?", BigDecimal.class, userId);
+    }
+}
@@ -0,0 +1,173 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.AdminVoucherFilterRequest;
+import com.epam.finaltask.dto.PersonalVoucherFilterRequest;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherFilerRequest;
+import com.epam.finaltask.dto.VoucherPaginatedResponse;
+import com.epam.finaltask.model.CacheType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherChange;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.service.impl.RefreshAheadCache;
+import com.epam.finaltask.service.impl.VoucherPageStorage;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoucherPageStorageTest {
+
+    private VoucherPageStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CacheType.CacheNames.VOUCHER_PAGES,
+                Caffeine.newBuilder().build())));
+        cacheManager.afterPropertiesSet();
+
+        storage = new VoucherPageStorage(cacheManager);
+    }
+
+    @Test
+    @DisplayName("evict: Should keep personal pages of other users when a voucher is ordered")
+    void evict_Order_ShouldKeepOtherUsersPages() {
+        UUID buyer = UUID.randomUUID();
+        UUID otherUser = UUID.randomUUID();
+        storage.store("buyer", page(personalFilter(buyer)));
+        storage.store("other", page(personalFilter(otherUser)));
+        storage.store("public", page(new VoucherFilerRequest()));
+
+        Voucher voucher = Voucher.builder().id(UUID.randomUUID()).status(VoucherStatus.CREATED).build();
+        VoucherChange change = VoucherChange.of(voucher);
+        voucher.setUser(User.builder().id(buyer).build());
+        voucher.setStatus(VoucherStatus.REGISTERED);
+
+        storage.evict(change.include(voucher));
+
+        assertThat(storage.get("buyer")).isNull();
+        assertThat(storage.get("public")).isNull();
+        assertThat(storage.get("other")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("evict: Should keep public pages when change never touches CREATED status")
+    void evict_PaidToCanceled_ShouldKeepPublicPages() {
+        storage.store("public", page(new VoucherFilerRequest()));
+        storage.store("admin", page(new AdminVoucherFilterRequest()));
+
+        Voucher voucher = Voucher.builder().id(UUID.randomUUID()).status(VoucherStatus.PAID).build();
+        VoucherChange change = VoucherChange.of(voucher);
+        voucher.setStatus(VoucherStatus.CANCELED);
+
+        storage.evict(change.include(voucher));
+
+        assertThat(storage.get("public")).isNotNull();
+        assertThat(storage.get("admin")).isNull();
+    }
+
+    @Test
+    @DisplayName("evict: Should keep pages filtered by other tour types")
+    void evict_ShouldRespectTourTypeFilter() {
+        VoucherFilerRequest safari = new VoucherFilerRequest();
+        safari.setTours(List.of(TourType.SAFARI));
+        VoucherFilerRequest wine = new VoucherFilerRequest();
+        wine.setTours(List.of(TourType.WINE));
+        storage.store("safari", page(safari));
+        storage.store("wine", page(wine));
+
+        storage.evict(VoucherChange.of(Voucher.builder()
+                .id(UUID.randomUUID())
+                .status(VoucherStatus.CREATED)
+                .tourType(TourType.WINE)
+                .build()));
+
+        assertThat(storage.get("safari")).isNotNull();
+        assertThat(storage.get("wine")).isNull();
+    }
+
+    @Test
+    @DisplayName("evict: Should always evict pages that show the changed voucher")
+    void evict_ShouldEvictPagesContainingVoucher() {
+        UUID voucherId = UUID.randomUUID();
+        VoucherFilerRequest safari = new VoucherFilerRequest();
+        safari.setTours(List.of(TourType.SAFARI));
+        storage.store("safari", page(safari, voucherId));
+
+        storage.evict(VoucherChange.of(Voucher.builder()
+                .id(voucherId)
+                .status(VoucherStatus.PAID)
+                .tourType(TourType.WINE)
+                .build()));
+
+        assertThat(storage.get("safari")).isNull();
+    }
+
+    @Test
+    @DisplayName("get: Should not keep a page whose load overlapped an eviction")
+    void get_EvictedWhileLoading_ShouldNotStore() {
+        VoucherPaginatedResponse loaded = storage.get("public", () -> {
+            storage.evict(createdVoucherChange());
+            return page(new VoucherFilerRequest());
+        });
+
+        assertThat(loaded).isNotNull();
+        assertThat(storage.get("public")).isNull();
+    }
+
+    @Test
+    @DisplayName("get: Should never insert a page whose load overlapped an eviction into a refresh-ahead cache")
+    void get_RefreshAheadEvictedWhileLoading_ShouldNotStore() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new RefreshAheadCache(CacheType.CacheNames.VOUCHER_PAGES,
+                Caffeine.newBuilder().expireAfterWrite(Duration.ofDays(1)).build(),
+                Duration.ofMinutes(5), 10, Runnable::run, VoucherPageStorage::isCacheable)));
+        cacheManager.afterPropertiesSet();
+        VoucherPageStorage refreshAheadStorage = new VoucherPageStorage(cacheManager);
+
+        VoucherPaginatedResponse loaded = refreshAheadStorage.get("public", () -> {
+            refreshAheadStorage.evict(createdVoucherChange());
+            return page(new VoucherFilerRequest());
+        });
+
+        assertThat(loaded).isNotNull();
+        assertThat(refreshAheadStorage.get("public")).isNull();
+        assertThat(refreshAheadStorage.get("public", () -> page(new VoucherFilerRequest()))).isNotNull();
+        assertThat(refreshAheadStorage.get("public")).isNotNull();
+    }
+
+    private VoucherChange createdVoucherChange() {
+        return VoucherChange.of(Voucher.builder().id(UUID.randomUUID()).status(VoucherStatus.CREATED).build());
+    }
+
+    private PersonalVoucherFilterRequest personalFilter(UUID userId) {
+        PersonalVoucherFilterRequest filter = new PersonalVoucherFilterRequest();
+        filter.setUserId(userId);
+        return filter;
+    }
+
+    private VoucherPaginatedResponse page(Object filter, UUID... voucherIds) {
+        VoucherPaginatedResponse response = new VoucherPaginatedResponse();
+        response.setFilter(filter);
+        response.setData(Arrays.stream(voucherIds)
+                .map(id -> {
+                    VoucherDTO dto = new VoucherDTO();
+                    dto.setId(id.toString());
+                    return dto;
+                })
+                .toList());
+        return response;
+    }
+}
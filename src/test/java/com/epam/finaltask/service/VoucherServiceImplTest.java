@@ -2,32 +2,40 @@ package com.epam.finaltask.service;
 
 import com.epam.finaltask.dto.*;
 import com.epam.finaltask.exception.AlreadyInUseException;
+import com.epam.finaltask.exception.InvalidCursorException;
 import com.epam.finaltask.exception.NotEnoughBalanceException;
 import com.epam.finaltask.exception.ResourceNotFoundException;
 import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.LedgerEntryType;
+import com.epam.finaltask.model.TourType;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherChange;
 import com.epam.finaltask.model.VoucherStatus;
 import com.epam.finaltask.repository.UserRepository;
 import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.repository.specification.VoucherCursor;
 import com.epam.finaltask.service.impl.VoucherServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -43,9 +51,16 @@ class VoucherServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private TokenStorageService<VoucherPaginatedResponse> voucherPageStorage;
+    private VoucherPageStorageService voucherPageStorage;
     @Mock
     private TokenStorageService<UserDTO> userTokenStorageService;
+    @Mock
+    private VoucherCountService voucherCountService;
+
+    @Mock
+    private BalanceLedgerService balanceLedgerService;
+    @Mock
+    private VoucherInvalidationService voucherInvalidationService;
 
     @InjectMocks
     private VoucherServiceImpl voucherService;
@@ -57,24 +72,34 @@ class VoucherServiceImplTest {
                 voucherMapper,
                 userRepository,
                 voucherPageStorage,
-                userTokenStorageService
+                userTokenStorageService,
+                voucherCountService,
+                balanceLedgerService,
+                voucherInvalidationService
         );
+        lenient().when(voucherPageStorage.get(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<VoucherPaginatedResponse>>getArgument(1).get());
     }
 
     // --- CRUD ---
 
     @Test
-    @DisplayName("Create: Should save voucher and clear cache")
+    @DisplayName("Create: Should save voucher and evict affected pages")
     void create_ShouldSave() {
         VoucherDTO dto = new VoucherDTO();
+        UUID id = UUID.randomUUID();
         when(voucherMapper.toVoucher(dto)).thenReturn(new Voucher());
-        when(voucherRepository.save(any())).thenReturn(new Voucher());
-        when(voucherMapper.toVoucherDTO(any())).thenReturn(dto);
+        when(voucherRepository.save(any())).thenReturn(Voucher.builder().id(id).status(VoucherStatus.CREATED).build());
+        when(voucherMapper.toVoucherDTO(any(Voucher.class))).thenReturn(dto);
 
         voucherService.create(dto);
 
-        verify(voucherPageStorage).clearAll();
+        ArgumentCaptor<VoucherChange> captor = ArgumentCaptor.forClass(VoucherChange.class);
+        verify(voucherInvalidationService).publish(captor.capture());
+        verify(voucherPageStorage, never()).clearAll();
         verify(voucherRepository).save(any());
+        assertThat(captor.getValue().getVoucherIds()).containsExactly(id);
+        assertThat(captor.getValue().getStatuses()).containsExactly(VoucherStatus.CREATED);
     }
 
     @Test
@@ -84,9 +109,8 @@ class VoucherServiceImplTest {
         VoucherDTO dto = new VoucherDTO();
         dto.setId(id.toString());
 
-        when(voucherRepository.existsById(id)).thenReturn(true);
-        when(voucherRepository.getReferenceById(id)).thenReturn(new Voucher());
-        when(voucherMapper.toVoucherDTO(any())).thenReturn(dto);
+        when(voucherRepository.findViewById(id)).thenReturn(Optional.of(view()));
+        when(voucherMapper.toVoucherDTO(any(VoucherView.class))).thenReturn(dto);
 
         VoucherDTO result = voucherService.getById(id.toString());
         assertThat(result.getId()).isEqualTo(id.toString());
@@ -96,51 +120,55 @@ class VoucherServiceImplTest {
     @DisplayName("GetById: Should throw exception when not found")
     void getById_NotFound_ShouldThrowException() {
         UUID id = UUID.randomUUID();
-        when(voucherRepository.existsById(id)).thenReturn(false);
+        when(voucherRepository.findViewById(id)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> voucherService.getById(id.toString()))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
-    @DisplayName("Update: Should update and clear cache")
+    @DisplayName("Update: Should update and evict pages depending on old and new state")
     void update_Exists_ShouldUpdate() {
         UUID id = UUID.randomUUID();
-        when(voucherRepository.existsById(id)).thenReturn(true);
-        when(voucherMapper.toVoucher(any())).thenReturn(new Voucher());
-        when(voucherRepository.save(any())).thenReturn(new Voucher());
-        when(voucherMapper.toVoucherDTO(any())).thenReturn(new VoucherDTO());
+        Voucher existing = Voucher.builder().id(id).status(VoucherStatus.CREATED).tourType(TourType.SAFARI).build();
+        Voucher updated = Voucher.builder().id(id).status(VoucherStatus.CREATED).tourType(TourType.WINE).build();
+        when(voucherRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(voucherMapper.toVoucher(any())).thenReturn(updated);
+        when(voucherRepository.save(any())).thenReturn(updated);
+        when(voucherMapper.toVoucherDTO(any(Voucher.class))).thenReturn(new VoucherDTO());
 
         voucherService.update(id.toString(), new VoucherDTO());
 
-        verify(voucherPageStorage).clearAll();
+        ArgumentCaptor<VoucherChange> captor = ArgumentCaptor.forClass(VoucherChange.class);
+        verify(voucherInvalidationService).publish(captor.capture());
+        assertThat(captor.getValue().getTourTypes()).containsExactlyInAnyOrder(TourType.SAFARI, TourType.WINE);
     }
 
     @Test
     @DisplayName("Update: Should throw exception when not found")
     void update_NotFound_ShouldThrowException() {
         UUID id = UUID.randomUUID();
-        when(voucherRepository.existsById(id)).thenReturn(false);
+        when(voucherRepository.findById(id)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> voucherService.update(id.toString(), new VoucherDTO()))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
     @Test
-    @DisplayName("Delete: Should delete and clear cache")
+    @DisplayName("Delete: Should delete and evict affected pages")
     void delete_Exists_ShouldDelete() {
         UUID id = UUID.randomUUID();
-        when(voucherRepository.existsById(id)).thenReturn(true);
+        when(voucherRepository.findById(id)).thenReturn(Optional.of(Voucher.builder().id(id).build()));
 
         voucherService.delete(id.toString());
 
         verify(voucherRepository).deleteById(id);
-        verify(voucherPageStorage).clearAll();
+        verify(voucherInvalidationService).publish(any(VoucherChange.class));
     }
 
     @Test
     @DisplayName("Delete: Should throw exception when not found")
     void delete_NotFound_ShouldThrowException() {
         UUID id = UUID.randomUUID();
-        when(voucherRepository.existsById(id)).thenReturn(false);
+        when(voucherRepository.findById(id)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> voucherService.delete(id.toString()))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
@@ -157,16 +185,23 @@ class VoucherServiceImplTest {
 
         when(voucherRepository.findById(vid)).thenReturn(Optional.of(v));
         when(userRepository.findById(uid)).thenReturn(Optional.of(u));
-        when(voucherRepository.save(v)).thenReturn(v);
+        when(balanceLedgerService.getBalance(u)).thenReturn(BigDecimal.valueOf(20));
+        when(voucherRepository.claim(eq(vid), eq(uid), any(UUID.class))).thenReturn(1);
+        when(balanceLedgerService.debit(eq(uid), eq(List.of(v)), any(UUID.class))).thenReturn(true);
         when(voucherMapper.toVoucherDTO(v)).thenReturn(new VoucherDTO());
 
         voucherService.order(vid.toString(), uid.toString());
 
-        assertThat(u.getBalance()).isEqualByComparingTo(BigDecimal.TEN);
         assertThat(v.getUser()).isEqualTo(u);
         assertThat(v.getStatus()).isEqualTo(VoucherStatus.REGISTERED);
+        verify(voucherRepository, never()).save(any());
+        verify(userRepository, never()).save(any());
         verify(userTokenStorageService).revoke(uid.toString());
-        verify(voucherPageStorage).clearAll();
+
+        ArgumentCaptor<VoucherChange> captor = ArgumentCaptor.forClass(VoucherChange.class);
+        verify(voucherInvalidationService).publish(captor.capture());
+        assertThat(captor.getValue().getUserIds()).containsExactly(uid);
+        assertThat(captor.getValue().getStatuses()).contains(VoucherStatus.REGISTERED);
     }
 
     @Test
@@ -179,6 +214,7 @@ class VoucherServiceImplTest {
 
         when(voucherRepository.findById(vid)).thenReturn(Optional.of(v));
         when(userRepository.findById(uid)).thenReturn(Optional.of(u));
+        when(balanceLedgerService.getBalance(u)).thenReturn(BigDecimal.TEN);
 
         assertThatThrownBy(() -> voucherService.order(vid.toString(), uid.toString()))
                 .isInstanceOf(NotEnoughBalanceException.class);
@@ -196,6 +232,129 @@ class VoucherServiceImplTest {
                 .isInstanceOf(AlreadyInUseException.class);
     }
 
+    @Test
+    @DisplayName("Order: Should throw exception when another buyer claims the voucher first")
+    void order_LostClaim_ShouldThrowWithoutDebit() {
+        UUID vid = UUID.randomUUID();
+        UUID uid = UUID.randomUUID();
+        Voucher v = Voucher.builder().id(vid).price(BigDecimal.TEN).build();
+        User u = User.builder().id(uid).balance(BigDecimal.valueOf(20)).build();
+
+        when(voucherRepository.findById(vid)).thenReturn(Optional.of(v));
+        when(userRepository.findById(uid)).thenReturn(Optional.of(u));
+        when(balanceLedgerService.getBalance(u)).thenReturn(BigDecimal.valueOf(20));
+        when(voucherRepository.claim(eq(vid), eq(uid), any(UUID.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> voucherService.order(vid.toString(), uid.toString()))
+                .isInstanceOf(AlreadyInUseException.class);
+        verify(balanceLedgerService, never()).debit(any(), anyList(), any());
+        verifyNoInteractions(voucherPageStorage);
+    }
+
+    @Test
+    @DisplayName("Order: Should throw exception when a concurrent purchase drained the balance")
+    void order_LostDebit_ShouldThrow() {
+        UUID vid = UUID.randomUUID();
+        UUID uid = UUID.randomUUID();
+        Voucher v = Voucher.builder().id(vid).price(BigDecimal.TEN).build();
+        User u = User.builder().id(uid).balance(BigDecimal.valueOf(20)).build();
+
+        when(voucherRepository.findById(vid)).thenReturn(Optional.of(v));
+        when(userRepository.findById(uid)).thenReturn(Optional.of(u));
+        when(balanceLedgerService.getBalance(u)).thenReturn(BigDecimal.valueOf(20));
+        when(voucherRepository.claim(eq(vid), eq(uid), any(UUID.class))).thenReturn(1);
+        when(balanceLedgerService.debit(eq(uid), eq(List.of(v)), any(UUID.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> voucherService.order(vid.toString(), uid.toString()))
+                .isInstanceOf(NotEnoughBalanceException.class);
+        verify(userTokenStorageService, never()).revoke(any());
+        verifyNoInteractions(voucherPageStorage);
+    }
+
+    @Test
+    @DisplayName("Checkout: Should claim all vouchers and debit the total once")
+    void checkout_SufficientBalance_ShouldClaimAllAndDebitOnce() {
+        UUID uid = UUID.randomUUID();
+        Voucher first = Voucher.builder().id(UUID.randomUUID()).price(BigDecimal.TEN)
+                .status(VoucherStatus.CREATED).build();
+        Voucher second = Voucher.builder().id(UUID.randomUUID()).price(BigDecimal.valueOf(15))
+                .status(VoucherStatus.CREATED).build();
+        User u = User.builder().id(uid).balance(BigDecimal.valueOf(30)).build();
+        List<UUID> ids = List.of(first.getId(), second.getId(), first.getId());
+
+        when(voucherRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        when(userRepository.findById(uid)).thenReturn(Optional.of(u));
+        when(balanceLedgerService.getBalance(u)).thenReturn(BigDecimal.valueOf(30));
+        when(voucherRepository.claimAll(anyCollection(), eq(uid), any(UUID.class))).thenReturn(2);
+        when(balanceLedgerService.debit(eq(uid), eq(List.of(first, second)), any(UUID.class))).thenReturn(true);
+        when(voucherMapper.toVoucherDTO(any(Voucher.class))).thenReturn(new VoucherDTO());
+
+        List<VoucherDTO> result = voucherService.checkout(ids, uid.toString());
+
+        assertThat(result).hasSize(2);
+        assertThat(first.getUser()).isEqualTo(u);
+        assertThat(second.getStatus()).isEqualTo(VoucherStatus.REGISTERED);
+        ArgumentCaptor<UUID> claimId = ArgumentCaptor.forClass(UUID.class);
+        verify(voucherRepository).claimAll(anyCollection(), eq(uid), claimId.capture());
+        verify(balanceLedgerService).debit(uid, List.of(first, second), claimId.getValue());
+        verify(userTokenStorageService).revoke(uid.toString());
+
+        ArgumentCaptor<VoucherChange> captor = ArgumentCaptor.forClass(VoucherChange.class);
+        verify(voucherInvalidationService).publish(captor.capture());
+        assertThat(captor.getValue().getVoucherIds()).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(captor.getValue().getUserIds()).containsExactly(uid);
+    }
+
+    @Test
+    @DisplayName("Checkout: Should throw ResourceNotFoundException when a voucher is missing")
+    void checkout_MissingVoucher_ShouldThrow() {
+        Voucher existing = Voucher.builder().id(UUID.randomUUID()).price(BigDecimal.TEN).build();
+        UUID missing = UUID.randomUUID();
+
+        when(voucherRepository.findAllById(anyCollection())).thenReturn(List.of(existing));
+
+        assertThatThrownBy(() -> voucherService.checkout(List.of(existing.getId(), missing),
+                UUID.randomUUID().toString()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(voucherRepository, never()).claimAll(anyCollection(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Checkout: Should throw when some vouchers were claimed concurrently")
+    void checkout_PartialClaim_ShouldThrowWithoutDebit() {
+        UUID uid = UUID.randomUUID();
+        Voucher first = Voucher.builder().id(UUID.randomUUID()).price(BigDecimal.TEN).build();
+        Voucher second = Voucher.builder().id(UUID.randomUUID()).price(BigDecimal.TEN).build();
+        User u = User.builder().id(uid).balance(BigDecimal.valueOf(100)).build();
+
+        when(voucherRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        when(userRepository.findById(uid)).thenReturn(Optional.of(u));
+        when(balanceLedgerService.getBalance(u)).thenReturn(BigDecimal.valueOf(100));
+        when(voucherRepository.claimAll(anyCollection(), eq(uid), any(UUID.class))).thenReturn(1);
+
+        assertThatThrownBy(() -> voucherService.checkout(List.of(first.getId(), second.getId()), uid.toString()))
+                .isInstanceOf(AlreadyInUseException.class);
+        verify(balanceLedgerService, never()).debit(any(), anyList(), any());
+        verifyNoInteractions(voucherPageStorage);
+    }
+
+    @Test
+    @DisplayName("Checkout: Should throw when the total exceeds the balance")
+    void checkout_InsufficientBalance_ShouldThrow() {
+        UUID uid = UUID.randomUUID();
+        Voucher first = Voucher.builder().id(UUID.randomUUID()).price(BigDecimal.TEN).build();
+        Voucher second = Voucher.builder().id(UUID.randomUUID()).price(BigDecimal.TEN).build();
+        User u = User.builder().id(uid).balance(BigDecimal.valueOf(15)).build();
+
+        when(voucherRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        when(userRepository.findById(uid)).thenReturn(Optional.of(u));
+        when(balanceLedgerService.getBalance(u)).thenReturn(BigDecimal.valueOf(15));
+
+        assertThatThrownBy(() -> voucherService.checkout(List.of(first.getId(), second.getId()), uid.toString()))
+                .isInstanceOf(NotEnoughBalanceException.class);
+        verify(voucherRepository, never()).claimAll(anyCollection(), any(), any());
+    }
+
     // --- Change Status (UPDATED) ---
 
     @Test
@@ -213,7 +372,7 @@ class VoucherServiceImplTest {
                 .build();
 
         when(voucherRepository.findById(vid)).thenReturn(Optional.of(voucher));
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
+        when(voucherRepository.release(vid, uid, "CANCELED")).thenReturn(1);
         when(voucherMapper.toVoucherDTO(voucher)).thenReturn(new VoucherDTO());
 
         VoucherStatusRequest request = new VoucherStatusRequest();
@@ -223,22 +382,49 @@ class VoucherServiceImplTest {
         voucherService.changeStatus(vid.toString(), request);
 
         // Assert
-        assertThat(user.getBalance()).isEqualByComparingTo(BigDecimal.TEN);
         assertThat(voucher.getUser()).isNull();
         assertThat(voucher.getStatus()).isEqualTo(VoucherStatus.CANCELED);
 
         verify(userTokenStorageService).revoke(uid.toString());
-        verify(userRepository).save(user);
+        verify(balanceLedgerService).refund(uid, voucher);
+        verify(userRepository, never()).save(any());
+        verify(voucherRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Change Status (CANCELED): Should not refund when the voucher was released concurrently")
+    void changeStatus_ToCanceled_LostRelease_ShouldNotRefund() {
+        UUID vid = UUID.randomUUID();
+        UUID uid = UUID.randomUUID();
+        Voucher voucher = Voucher.builder()
+                .id(vid)
+                .price(BigDecimal.TEN)
+                .user(User.builder().id(uid).build())
+                .status(VoucherStatus.PAID)
+                .build();
+
+        when(voucherRepository.findById(vid)).thenReturn(Optional.of(voucher));
+        when(voucherRepository.release(vid, uid, "CANCELED")).thenReturn(0);
+
+        VoucherStatusRequest request = new VoucherStatusRequest();
+        request.setVoucherStatus("CANCELED");
+
+        assertThatThrownBy(() -> voucherService.changeStatus(vid.toString(), request))
+                .isInstanceOf(AlreadyInUseException.class);
+
+        verify(balanceLedgerService, never()).refund(any(), any());
+        verify(userTokenStorageService, never()).revoke(anyString());
     }
 
     @Test
     @DisplayName("Change Status (CREATED): Should detach user")
     void changeStatus_ToCreated_ShouldDetachUser() {
         UUID vid = UUID.randomUUID();
-        Voucher voucher = Voucher.builder().id(vid).user(new User()).build();
+        UUID uid = UUID.randomUUID();
+        Voucher voucher = Voucher.builder().id(vid).user(User.builder().id(uid).build()).build();
 
         when(voucherRepository.findById(vid)).thenReturn(Optional.of(voucher));
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
+        when(voucherRepository.release(vid, uid, "CREATED")).thenReturn(1);
         when(voucherMapper.toVoucherDTO(voucher)).thenReturn(new VoucherDTO());
 
         VoucherStatusRequest request = new VoucherStatusRequest();
@@ -248,6 +434,7 @@ class VoucherServiceImplTest {
 
         assertThat(voucher.getUser()).isNull();
         assertThat(voucher.getStatus()).isEqualTo(VoucherStatus.CREATED);
+        verify(balanceLedgerService, never()).refund(any(), any());
     }
 
     @Test
@@ -257,7 +444,6 @@ class VoucherServiceImplTest {
         Voucher voucher = Voucher.builder().id(vid).build();
 
         when(voucherRepository.findById(vid)).thenReturn(Optional.of(voucher));
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
         when(voucherMapper.toVoucherDTO(voucher)).thenReturn(new VoucherDTO());
 
         VoucherStatusRequest request = new VoucherStatusRequest();
@@ -266,6 +452,8 @@ class VoucherServiceImplTest {
         voucherService.changeStatus(vid.toString(), request);
 
         assertThat(voucher.getStatus()).isEqualTo(VoucherStatus.REGISTERED);
+        verify(voucherRepository).updateStatus(vid, "REGISTERED");
+        verify(voucherRepository, never()).save(any());
     }
 
     @Test
@@ -275,7 +463,6 @@ class VoucherServiceImplTest {
         Voucher voucher = Voucher.builder().id(vid).isHot(false).build();
 
         when(voucherRepository.findById(vid)).thenReturn(Optional.of(voucher));
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
         when(voucherMapper.toVoucherDTO(voucher)).thenReturn(new VoucherDTO());
 
         VoucherStatusRequest request = new VoucherStatusRequest();
@@ -284,6 +471,9 @@ class VoucherServiceImplTest {
         voucherService.changeStatus(vid.toString(), request);
 
         assertThat(voucher.getIsHot()).isTrue();
+        verify(voucherRepository).updateHot(vid, true);
+        verify(voucherRepository, never()).updateStatus(any(), any());
+        verify(voucherRepository, never()).save(any());
     }
 
     @Test
@@ -305,23 +495,22 @@ class VoucherServiceImplTest {
     @DisplayName("FindWithFilters: Should use cache when filter is empty")
     void findWithFilters_Empty_UseCache() {
         Pageable p = PageRequest.of(0, 10);
-        when(voucherPageStorage.get(anyString())).thenReturn(new VoucherPaginatedResponse());
+        doReturn(new VoucherPaginatedResponse()).when(voucherPageStorage).get(anyString(), any());
 
         voucherService.findWithFilers(new VoucherFilerRequest(), p);
 
-        verify(voucherRepository, never()).findAll(any(Specification.class), eq(p));
+        verify(voucherRepository, never()).findViewSlice(any(Specification.class), eq(p));
     }
 
     @Test
     @DisplayName("FindWithFilters: Should fetch DB when cache miss")
     void findWithFilters_Empty_CacheMiss() {
         Pageable p = PageRequest.of(0, 10);
-        when(voucherPageStorage.get(anyString())).thenReturn(null);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
+        when(voucherRepository.findViewSlice(any(Specification.class), eq(p))).thenReturn(new SliceImpl<>(List.of(), p, false));
 
         voucherService.findWithFilers(new VoucherFilerRequest(), p);
 
-        verify(voucherPageStorage).store(anyString(), any());
+        verify(voucherPageStorage).get(anyString(), any());
     }
 
     @Test
@@ -331,12 +520,11 @@ class VoucherServiceImplTest {
         req.setUserId(UUID.randomUUID());
         Pageable p = PageRequest.of(0, 10);
 
-        when(voucherPageStorage.get(anyString())).thenReturn(null);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
+        when(voucherRepository.findViewSlice(any(Specification.class), eq(p))).thenReturn(new SliceImpl<>(List.of(), p, false));
 
         voucherService.findAllByUserId(req, p);
 
-        verify(voucherPageStorage).store(anyString(), any());
+        verify(voucherPageStorage).get(anyString(), any());
     }
 
     @Test
@@ -368,58 +556,6 @@ class VoucherServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
-    @Test
-    @DisplayName("FindWithFilters: Should not use cache when filter is NOT empty")
-    void findWithFilters_NotEmpty_ShouldNotUseCache() {
-        VoucherFilerRequest filter = new VoucherFilerRequest();
-        filter.setMinPrice(BigDecimal.ONE);
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        voucherService.findWithFilers(filter, p);
-
-        verify(voucherPageStorage, never()).get(anyString());
-        verify(voucherPageStorage, never()).store(anyString(), any());
-    }
-
-    @Test
-    @DisplayName("isFilterEmpty: Should handle AdminVoucherFilterRequest branches")
-    void isFilterEmpty_AdminFilter_ShouldCheckAllFields() {
-        AdminVoucherFilterRequest adminFilter = new AdminVoucherFilterRequest();
-        adminFilter.setTitle("Some Tour");
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        voucherService.findWithFilers(adminFilter, p);
-
-        verify(voucherPageStorage, never()).get(anyString());
-    }
-
-    @Test
-    @DisplayName("isFilterEmpty: Should handle PersonalVoucherFilterRequest branches")
-    void isFilterEmpty_PersonalFilter_ShouldCheckStatuses() {
-        PersonalVoucherFilterRequest personalFilter = new PersonalVoucherFilterRequest();
-        personalFilter.setStatuses(new ArrayList<>());
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        voucherService.findAllByUserId(personalFilter, p);
-
-        verify(voucherPageStorage, never()).get(anyString());
-    }
-
-    @Test
-    @DisplayName("isFilterEmpty: Should return true for default request objects")
-    void isFilterEmpty_VariousNullFields_ShouldReturnTrue() {
-        VoucherFilerRequest filter = new VoucherFilerRequest();
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherPageStorage.get(anyString())).thenReturn(new VoucherPaginatedResponse());
-
-        voucherService.findWithFilers(filter, p);
-
-        verify(voucherPageStorage).get(anyString());
-    }
-
     @Test
     @DisplayName("FindWithFilters: Should return cached response when cache hit")
     void findWithFilters_CacheHit_ShouldReturnCachedResponse() {
@@ -428,15 +564,14 @@ class VoucherServiceImplTest {
         Pageable pageable = PageRequest.of(0, 10);
         VoucherPaginatedResponse expectedResponse = new VoucherPaginatedResponse();
 
-        when(voucherPageStorage.get(anyString())).thenReturn(expectedResponse);
+        doReturn(expectedResponse).when(voucherPageStorage).get(anyString(), any());
 
         // Act
         VoucherPaginatedResponse actualResponse = voucherService.findWithFilers(filter, pageable);
 
         // Assert
         assertThat(actualResponse).isSameAs(expectedResponse);
-        verify(voucherRepository, never()).findAll(any(Specification.class), any(Pageable.class));
-        verify(voucherPageStorage, never()).store(anyString(), any());
+        verify(voucherRepository, never()).findViewSlice(any(Specification.class), any(Pageable.class));
     }
 
     @Test
@@ -450,7 +585,6 @@ class VoucherServiceImplTest {
                 .build();
 
         when(voucherRepository.findById(vid)).thenReturn(Optional.of(voucher));
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
         when(voucherMapper.toVoucherDTO(voucher)).thenReturn(new VoucherDTO());
 
         VoucherStatusRequest request = new VoucherStatusRequest();
@@ -459,210 +593,186 @@ class VoucherServiceImplTest {
         voucherService.changeStatus(vid.toString(), request);
 
         verify(userRepository, never()).save(any());
+        verify(voucherRepository, never()).release(any(), any(), any());
+        verify(voucherRepository).updateStatus(vid, "CANCELED");
         verify(userTokenStorageService, never()).revoke(anyString());
         assertThat(voucher.getStatus()).isEqualTo(VoucherStatus.CANCELED);
     }
 
     @Test
-    @DisplayName("isFilterEmpty: Should return true for PersonalVoucherFilterRequest with null statuses")
-    void isFilterEmpty_PersonalFilter_NullStatuses_ReturnsTrue() {
-        // Arrange
-        PersonalVoucherFilterRequest filter = new PersonalVoucherFilterRequest();
-        filter.setUserId(UUID.randomUUID());
-        filter.setStatuses(null);
-
+    @DisplayName("FindWithFilters: Should cache filtered searches")
+    void findWithFilters_Filtered_ShouldUseCache() {
+        VoucherFilerRequest filter = new VoucherFilerRequest();
+        filter.setMinPrice(BigDecimal.ONE);
+        filter.setTours(List.of(TourType.WINE));
         Pageable p = PageRequest.of(0, 10);
-        when(voucherPageStorage.get(anyString())).thenReturn(new VoucherPaginatedResponse());
+        when(voucherRepository.findViewSlice(any(Specification.class), eq(p))).thenReturn(new SliceImpl<>(List.of(), p, false));
 
-        // Act
-        voucherService.findAllByUserId(filter, p);
+        voucherService.findWithFilers(filter, p);
 
-        // Assert
-        verify(voucherPageStorage).get(anyString());
+        verify(voucherPageStorage).get(anyString(), any());
+        verify(voucherPageStorage, never()).revoke(anyString());
     }
 
     @Test
-    @DisplayName("isFilterEmpty: Should return false for PersonalVoucherFilterRequest with non-null statuses")
-    void isFilterEmpty_PersonalFilter_WithStatuses_ReturnsFalse() {
-        // Arrange
-        PersonalVoucherFilterRequest filter = new PersonalVoucherFilterRequest();
-        filter.setStatuses(new ArrayList<>());
-
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        // Act
-        voucherService.findAllByUserId(filter, p);
-
-        // Assert
-        verify(voucherPageStorage, never()).get(anyString());
-    }
+    @DisplayName("Cache key: Equivalent filters should share one cache entry")
+    void findWithFilters_EquivalentFilters_ShouldShareKey() {
+        VoucherFilerRequest first = new VoucherFilerRequest();
+        first.setTours(List.of(TourType.WINE, TourType.SAFARI, TourType.WINE));
+        first.setMinPrice(new BigDecimal("100.00"));
+        first.setSortField("PRICE");
+        first.setSortDirection("ASC");
 
-    @Test
-    @DisplayName("isFilterEmpty: Should return true for AdminVoucherFilterRequest with all null target fields")
-    void isFilterEmpty_AdminFilter_AllNull_ReturnsTrue() {
-        // Arrange
-        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
+        VoucherFilerRequest second = new VoucherFilerRequest();
+        second.setTours(List.of(TourType.SAFARI, TourType.WINE));
+        second.setMinPrice(new BigDecimal("100"));
+        second.setSortField("price");
+        second.setSortDirection("asc");
 
         Pageable p = PageRequest.of(0, 10);
-        when(voucherPageStorage.get(anyString())).thenReturn(new VoucherPaginatedResponse());
+        doReturn(new VoucherPaginatedResponse()).when(voucherPageStorage).get(anyString(), any());
 
-        // Act
-        voucherService.findWithFilers(filter, p);
+        voucherService.findWithFilers(first, p);
+        voucherService.findWithFilers(second, p);
 
-        // Assert
-        verify(voucherPageStorage).get(anyString());
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(voucherPageStorage, times(2)).get(keys.capture(), any());
+        assertThat(keys.getAllValues().get(0)).isEqualTo(keys.getAllValues().get(1));
     }
 
     @Test
-    @DisplayName("isFilterEmpty: Should return false when AdminVoucherFilterRequest has any field set")
-    void isFilterEmpty_AdminFilter_OneFieldNotProperty_ReturnsFalse() {
-        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
-        filter.setIsHot(true);
-
+    @DisplayName("Cache key: Public, admin and personal requests should never share a key")
+    void findWithFilters_DifferentScopes_ShouldUseDifferentKeys() {
+        PersonalVoucherFilterRequest personal = new PersonalVoucherFilterRequest();
+        personal.setUserId(UUID.randomUUID());
         Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
+        doReturn(new VoucherPaginatedResponse()).when(voucherPageStorage).get(anyString(), any());
 
-        // Act
-        voucherService.findWithFilers(filter, p);
+        voucherService.findWithFilers(new VoucherFilerRequest(), p);
+        voucherService.findWithFilers(new AdminVoucherFilterRequest(), p);
+        voucherService.findAllByUserId(personal, p);
 
-        // Assert
-        verify(voucherPageStorage, never()).get(anyString());
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(voucherPageStorage, times(3)).get(keys.capture(), any());
+        assertThat(keys.getAllValues()).doesNotHaveDuplicates();
     }
 
     @Test
-    @DisplayName("isFilterEmpty: Should return false when base VoucherFilerRequest field is set")
-    void isFilterEmpty_BaseFilter_SortFieldNotNull_ReturnsFalse() {
-        // Arrange
-        VoucherFilerRequest filter = new VoucherFilerRequest();
-        filter.setSortField("price");
+    @DisplayName("Cache key: Different pages and filter values should use different keys")
+    void findWithFilters_DifferentFilters_ShouldUseDifferentKeys() {
+        AdminVoucherFilterRequest byTitle = new AdminVoucherFilterRequest();
+        byTitle.setTitle("sea");
+        AdminVoucherFilterRequest byHotTitle = new AdminVoucherFilterRequest();
+        byHotTitle.setTitle("sea");
+        byHotTitle.setIsHot(true);
+        doReturn(new VoucherPaginatedResponse()).when(voucherPageStorage).get(anyString(), any());
 
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
+        voucherService.findWithFilers(byTitle, PageRequest.of(0, 10));
+        voucherService.findWithFilers(byTitle, PageRequest.of(1, 10));
+        voucherService.findWithFilers(byHotTitle, PageRequest.of(0, 10));
 
-        // Act
-        voucherService.findWithFilers(filter, p);
-
-        // Assert
-        verify(voucherPageStorage, never()).get(anyString());
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(voucherPageStorage, times(3)).get(keys.capture(), any());
+        assertThat(keys.getAllValues()).doesNotHaveDuplicates();
     }
 
     @Test
-    @DisplayName("isFilterEmpty: Should return false when Tours is set")
-    void isFilterEmpty_ToursSet_ReturnsFalse() {
+    @DisplayName("FindWithFilters: Should take totals from the count service instead of a COUNT query")
+    void findWithFilters_CountCached_ShouldUseCachedTotal() {
         VoucherFilerRequest filter = new VoucherFilerRequest();
-        filter.setTours(new ArrayList<>()); // Поле не null
-
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
+        Pageable p = PageRequest.of(0, 2);
+        when(voucherRepository.findViewSlice(any(Specification.class), eq(p)))
+                .thenReturn(new SliceImpl<>(List.of(view(), view()), p, true));
+        when(voucherCountService.getCount(filter)).thenReturn(7L);
 
-        voucherService.findWithFilers(filter, p);
+        VoucherPaginatedResponse result = voucherService.findWithFilers(filter, p);
 
-        // Кэш НЕ должен вызываться, так как фильтр не пустой
-        verify(voucherPageStorage, never()).get(anyString());
+        assertThat(result.getTotalItems()).isEqualTo(7);
+        assertThat(result.getTotalPages()).isEqualTo(4);
+        assertThat(result.isTotalApproximate()).isFalse();
+        verify(voucherRepository, never()).count(any(Specification.class));
     }
 
     @Test
-    @DisplayName("isFilterEmpty: Should return false when MaxPrice is set")
-    void isFilterEmpty_MaxPriceSet_ReturnsFalse() {
+    @DisplayName("FindWithFilters: Should return an estimated total while the count is unknown")
+    void findWithFilters_CountMissing_ShouldEstimateTotal() {
         VoucherFilerRequest filter = new VoucherFilerRequest();
-        filter.setMaxPrice(BigDecimal.TEN);
-
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
+        Pageable p = PageRequest.of(1, 2);
+        when(voucherRepository.findViewSlice(any(Specification.class), eq(p)))
+                .thenReturn(new SliceImpl<>(List.of(view(), view()), p, true));
+        when(voucherCountService.getCount(filter)).thenReturn(null);
 
-        voucherService.findWithFilers(filter, p);
+        VoucherPaginatedResponse result = voucherService.findWithFilers(filter, p);
 
-        verify(voucherPageStorage, never()).get(anyString());
+        assertThat(result.getTotalItems()).isEqualTo(5);
+        assertThat(result.isTotalApproximate()).isTrue();
+        assertThat(result.isHasNext()).isTrue();
+        verify(voucherPageStorage, never()).revoke(anyString());
     }
 
-    @Test
-    @DisplayName("isFilterEmpty: Should return false when Hotels is set")
-    void isFilterEmpty_HotelsSet_ReturnsFalse() {
-        VoucherFilerRequest filter = new VoucherFilerRequest();
-        filter.setHotels(new ArrayList<>());
-
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        voucherService.findWithFilers(filter, p);
-
-        verify(voucherPageStorage, never()).get(anyString());
-    }
+    // --- Cursor pagination ---
 
     @Test
-    @DisplayName("isFilterEmpty: Should return false when Transfers is set")
-    void isFilterEmpty_TransfersSet_ReturnsFalse() {
+    @DisplayName("FindWithCursor: Should fetch one extra row and return a continuation token")
+    void findWithCursor_FirstPage_ShouldReturnNextCursor() {
         VoucherFilerRequest filter = new VoucherFilerRequest();
-        filter.setTransfers(new ArrayList<>());
+        List<Voucher> rows = List.of(voucher("Alps", true), voucher("Beach", false), voucher("City", false));
+        when(voucherRepository.findWithLimit(any(Specification.class), eq(3))).thenReturn(rows);
+        when(voucherMapper.toVoucherDTO(any(Voucher.class))).thenReturn(new VoucherDTO());
 
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        voucherService.findWithFilers(filter, p);
+        VoucherPaginatedResponse result = voucherService.findWithCursor(filter, null, 2);
 
-        verify(voucherPageStorage, never()).get(anyString());
+        assertThat(result.getData()).hasSize(2);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.isHasPrevious()).isFalse();
+        assertThat(VoucherCursor.decode(result.getNextCursor(), filter).getValues())
+                .containsExactly(false, rows.get(1).getCreatedAt(), "Beach", rows.get(1).getId());
+        verify(voucherRepository, never()).findViewSlice(any(Specification.class), any(Pageable.class));
+        verify(voucherRepository, never()).count(any(Specification.class));
+        verify(voucherPageStorage).get(anyString(), any());
     }
 
     @Test
-    @DisplayName("isFilterEmpty: AdminFilter should return false when VoucherId is set")
-    void isFilterEmpty_AdminFilter_VoucherIdSet_ReturnsFalse() {
-        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
-        filter.setVoucherId(String.valueOf(UUID.randomUUID()));
-
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
+    @DisplayName("FindWithCursor: Should not return a token on the last page")
+    void findWithCursor_LastPage_ShouldNotReturnNextCursor() {
+        VoucherFilerRequest filter = new VoucherFilerRequest();
+        String cursor = VoucherCursor.of(filter, voucher("Alps", true)).encode();
+        when(voucherRepository.findWithLimit(any(Specification.class), eq(11))).thenReturn(List.of(voucher("Beach", false)));
 
-        voucherService.findWithFilers(filter, p);
+        VoucherPaginatedResponse result = voucherService.findWithCursor(filter, cursor, 10);
 
-        verify(voucherPageStorage, never()).get(anyString());
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.isHasPrevious()).isTrue();
+        assertThat(result.getNextCursor()).isNull();
     }
 
     @Test
-    @DisplayName("isFilterEmpty: AdminFilter should return false when IsHot is set")
-    void isFilterEmpty_AdminFilter_IsHotSet_ReturnsFalse() {
-        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
-        filter.setIsHot(true);
-
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        voucherService.findWithFilers(filter, p);
+    @DisplayName("FindWithCursor: Should reject tampered tokens and tokens issued for another sort")
+    void findWithCursor_InvalidCursor_ShouldThrow() {
+        VoucherFilerRequest byPrice = new VoucherFilerRequest();
+        byPrice.setSortField("price");
+        String defaultCursor = VoucherCursor.of(new VoucherFilerRequest(), voucher("Alps", true)).encode();
 
-        verify(voucherPageStorage, never()).get(anyString());
+        assertThatThrownBy(() -> voucherService.findWithCursor(new VoucherFilerRequest(), "not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> voucherService.findWithCursor(byPrice, defaultCursor, 10))
+                .isInstanceOf(InvalidCursorException.class);
+        verify(voucherRepository, never()).findWithLimit(any(), anyInt());
     }
 
-    @Test
-    @DisplayName("isFilterEmpty: PersonalFilter with null Statuses BUT set Base field should return false")
-    void isFilterEmpty_PersonalFilter_NullStatuses_But_MaxPriceSet_ReturnsFalse() {
-        PersonalVoucherFilterRequest filter = new PersonalVoucherFilterRequest();
-        filter.setUserId(UUID.randomUUID());
-        filter.setStatuses(null);
-        filter.setMaxPrice(BigDecimal.valueOf(500));
-
-        Pageable p = PageRequest.of(0, 10);
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        voucherService.findAllByUserId(filter, p);
-
-        verify(voucherPageStorage, never()).get(anyString());
+    private Voucher voucher(String title, boolean isHot) {
+        return Voucher.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .price(BigDecimal.TEN)
+                .isHot(isHot)
+                .createdAt(LocalDateTime.now())
+                .status(VoucherStatus.CREATED)
+                .build();
     }
 
-    @Test
-    @DisplayName("isFilterEmpty: AdminFilter should return false when Statuses is set")
-    void isFilterEmpty_AdminFilter_StatusesSet_ReturnsFalse() {
-        // Arrange
-        AdminVoucherFilterRequest filter = new AdminVoucherFilterRequest();
-        filter.setStatuses(new ArrayList<>());
-
-        Pageable p = PageRequest.of(0, 10);
-
-        when(voucherRepository.findAll(any(Specification.class), eq(p))).thenReturn(Page.empty());
-
-        // Act
-        voucherService.findWithFilers(filter, p);
-
-        // Assert
-        verify(voucherPageStorage, never()).get(anyString());
+    private VoucherView view() {
+        return new VoucherView(UUID.randomUUID(), "Trip", "Description", BigDecimal.TEN,
+                TourType.WINE, null, null, VoucherStatus.CREATED, null, null, null, false);
     }
 }
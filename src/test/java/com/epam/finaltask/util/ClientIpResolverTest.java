@@ -0,0 +1,63 @@
+package com.epam.finaltask.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = resolver("10.0.0.0/8");
+
+    @Test
+    void resolve_UntrustedPeer_ShouldIgnoreForwardedFor() {
+        MockHttpServletRequest request = request("203.0.113.7", "1.2.3.4");
+
+        assertThat(resolver.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void resolve_NoTrustedProxies_ShouldUsePeerAddress() {
+        MockHttpServletRequest request = request("10.0.0.1", "1.2.3.4");
+
+        assertThat(resolver(null).resolve(request)).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void resolve_TrustedPeer_ShouldUseRightmostUntrustedHop() {
+        MockHttpServletRequest request = request("10.0.0.1", "6.6.6.6, 198.51.100.2, 10.0.0.5");
+
+        assertThat(resolver.resolve(request)).isEqualTo("198.51.100.2");
+    }
+
+    @Test
+    void resolve_AllHopsTrusted_ShouldUseLeftmostHop() {
+        MockHttpServletRequest request = request("10.0.0.1", "10.0.0.9, 10.0.0.5");
+
+        assertThat(resolver.resolve(request)).isEqualTo("10.0.0.9");
+    }
+
+    @Test
+    void resolve_GarbageHop_ShouldBeTreatedAsClient() {
+        MockHttpServletRequest request = request("10.0.0.1", "not-an-ip");
+
+        assertThat(resolver.resolve(request)).isEqualTo("not-an-ip");
+    }
+
+    private static ClientIpResolver resolver(String trustedProxy) {
+        ClientIpProperties properties = new ClientIpProperties();
+        if (trustedProxy != null) {
+            properties.setTrustedProxies(List.of(trustedProxy));
+        }
+        return new ClientIpResolver(properties);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+}
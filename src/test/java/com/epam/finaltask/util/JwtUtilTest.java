@@ -0,0 +1,118 @@
+package com.epam.finaltask.util;
+
+import com.epam.finaltask.model.Role;
+import com.epam.finaltask.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "404E635263336A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey(SECRET);
+        jwtProperties.setExpiration(60_000);
+        jwtProperties.getRefreshToken().setExpiration(120_000);
+
+        jwtUtil = new JwtUtil(jwtProperties);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("traveler_bob")
+                .role(Role.USER)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Parsed claims should carry subject, id and expiry for reuse")
+    void extractAllClaims_ShouldExposeSubjectIdAndExpiry() {
+        Claims claims = jwtUtil.extractAllClaims(jwtUtil.generateAccessToken(user));
+
+        assertThat(claims.getSubject()).isEqualTo("traveler_bob");
+        assertThat(claims.get("id", String.class)).isEqualTo(user.getId().toString());
+        assertThat(claims.getExpiration()).isAfter(new Date());
+        assertThat(jwtUtil.isTokenValid(claims, user)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Claims should be rejected for another user or after expiry")
+    void isTokenValid_Claims_ShouldCheckSubjectAndExpiry() {
+        Claims claims = jwtUtil.extractAllClaims(jwtUtil.generateAccessToken(user));
+        User other = User.builder().username("poor_student").build();
+
+        assertThat(jwtUtil.isTokenValid(claims, other)).isFalse();
+
+        claims.setExpiration(new Date(System.currentTimeMillis() - 1000));
+        assertThat(jwtUtil.isTokenValid(claims, user)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Tokens signed with another key should fail verification")
+    void extractAllClaims_ForeignSignature_ShouldThrow() {
+        JwtProperties otherProperties = new JwtProperties();
+        otherProperties.setSecretKey(SECRET.replace('4', '5'));
+        otherProperties.setExpiration(60_000);
+        String foreign = new JwtUtil(otherProperties).generateAccessToken(user);
+
+        assertThatThrownBy(() -> jwtUtil.extractAllClaims(foreign)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    @DisplayName("String and claims validation should agree")
+    void isTokenValid_String_ShouldMatchClaimsVariant() {
+        String token = jwtUtil.generateAccessToken(user);
+
+        assertThat(jwtUtil.isTokenValid(token, user))
+                .isEqualTo(jwtUtil.isTokenValid(jwtUtil.extractAllClaims(token), user))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Access token claims should rebuild the principal without a user lookup")
+    void toPrincipal_ShouldBuildUserFromClaims() {
+        Claims access = jwtUtil.extractAllClaims(jwtUtil.generateAccessToken(user));
+        Claims refresh = jwtUtil.extractAllClaims(jwtUtil.generateRefreshToken(user));
+
+        User principal = jwtUtil.toPrincipal(access);
+
+        assertThat(jwtUtil.isAccessToken(access)).isTrue();
+        assertThat(jwtUtil.isAccessToken(refresh)).isFalse();
+        assertThat(principal.getId()).isEqualTo(user.getId());
+        assertThat(principal.getUsername()).isEqualTo("traveler_bob");
+        assertThat(principal.getRole()).isEqualTo(Role.USER);
+        assertThat(principal.getAuthorities()).isEqualTo(user.getAuthorities());
+    }
+
+    @Test
+    @DisplayName("Refresh tokens minted in the same second should still be distinct")
+    void generateRefreshToken_SameSecond_ShouldCarryUniqueId() {
+        Claims first = jwtUtil.extractAllClaims(jwtUtil.generateRefreshToken(user));
+        Claims second = jwtUtil.extractAllClaims(jwtUtil.generateRefreshToken(user));
+
+        assertThat(first.getId()).isNotBlank().isNotEqualTo(second.getId());
+    }
+
+    @Test
+    @DisplayName("Both tokens of a session should carry the same session id")
+    void extractSessionId_ShouldMatchAcrossTokenPair() {
+        String access = jwtUtil.generateAccessToken(user, "session-1");
+        String refresh = jwtUtil.generateRefreshToken(user, "session-1");
+
+        assertThat(jwtUtil.extractSessionId(access)).isEqualTo("session-1");
+        assertThat(jwtUtil.extractSessionId(refresh)).isEqualTo("session-1");
+        assertThat(jwtUtil.extractSessionId(jwtUtil.generateAccessToken(user))).isNull();
+    }
+}